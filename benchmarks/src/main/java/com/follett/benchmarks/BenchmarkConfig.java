@@ -0,0 +1,30 @@
+package com.follett.benchmarks;
+
+import com.follett.config.ScenarioConfig;
+import com.follett.driver.factory.DriverFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+
+/**
+ * BenchmarkConfig wires the production beans without Spring Boot auto-configuration, replacing the
+ * {@link DriverFactory} with the {@link FakeDriverFactory} and exposing the Cucumber {@link ScenarioConfig} hooks as a
+ * bean so they can be called directly.
+ */
+@Configuration
+@ComponentScan(basePackages = "com.follett", excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.REGEX, pattern = "com\\.follett\\.(config|benchmarks)\\..*"),
+        @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = DriverFactory.class)})
+public class BenchmarkConfig {
+
+    @Bean
+    public DriverFactory driverFactory() {
+        return new FakeDriverFactory();
+    }
+
+    @Bean
+    public ScenarioConfig scenarioConfig() {
+        return new ScenarioConfig();
+    }
+}
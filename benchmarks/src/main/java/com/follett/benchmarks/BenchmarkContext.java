@@ -0,0 +1,68 @@
+package com.follett.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * BenchmarkContext is the Spring context shared by the threads of a benchmark trial. Reports the beans write on
+ * shutdown go to {@code target/benchmark-reports} so they do not mix with the reports of a real run.
+ * <p/>
+ * {@code commandLatencyMicros} is the simulated WebDriver round-trip: 0 isolates our own overhead, a non-zero value
+ * shows how it compares to a realistic command cost. Run with {@code -p lazy=false} to measure eager session start.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    private static final String REPORTS = "target/benchmark-reports/";
+
+    @Param({"0", "250"})
+    public long commandLatencyMicros;
+
+    @Param({"true"})
+    public boolean lazy;
+
+    private AnnotationConfigApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("env", "benchmark");
+        properties.put("browser", "chrome");
+        properties.put("remote", "false");
+        properties.put("remoteUrl", "http://localhost:4444/wd/hub");
+        properties.put("ns.web.cas.url", "http://localhost/benchmark");
+        properties.put("page.load.time.out", "30");
+        properties.put("script.time.out", "30");
+        properties.put("driver.lazy", String.valueOf(lazy));
+        properties.put("driver.pool.max.size", "64");
+        properties.put("driver.registry.max.live", "64");
+        properties.put("benchmark.command.latency.micros", String.valueOf(commandLatencyMicros));
+        properties.put("metrics.summary.file", REPORTS + "driver-metrics.json");
+        properties.put("wait.report.file", REPORTS + "slowest-waits.json");
+        properties.put("screenshot.dir", REPORTS + "screenshots");
+        properties.put("allure.environment.dir", REPORTS + "allure");
+        properties.put("shard.history.file", REPORTS + "shard-history.json");
+
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.register(BenchmarkConfig.class);
+        context.refresh();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
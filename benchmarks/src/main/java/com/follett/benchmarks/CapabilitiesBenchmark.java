@@ -0,0 +1,48 @@
+package com.follett.benchmarks;
+
+import com.follett.driver.RemoteDriverBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.Capabilities;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of the remote session capabilities, from the shared template and through the
+ * {@link RemoteDriverBuilder} as {@code DriverFactory} does it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CapabilitiesBenchmark {
+
+    @Param({"chrome", "firefox", "iexplorer"})
+    public String browser;
+
+    @Benchmark
+    public Capabilities template() {
+        return RemoteDriverBuilder.capabilityTemplate(browser);
+    }
+
+    @Benchmark
+    public RemoteDriverBuilder builder() {
+        return new RemoteDriverBuilder().setRemoteURL("http://localhost:4444/wd/hub").loadCapabilities(browser);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public RemoteDriverBuilder builderContended() {
+        return builder();
+    }
+}
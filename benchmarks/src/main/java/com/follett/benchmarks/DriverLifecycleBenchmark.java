@@ -0,0 +1,117 @@
+package com.follett.benchmarks;
+
+import com.follett.context.ScenarioContext;
+import com.follett.driver.DriverManager;
+import com.follett.driver.factory.DriverFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the driver lifecycle against {@link FakeWebDriver} sessions: a fresh {@link DriverFactory#newInstance}, a
+ * pooled {@link DriverManager#populateDriver()}/{@link DriverManager#deleteDriver()} cycle with and without a command
+ * that starts the lazy session, and {@link DriverManager#refreshDriver()}. The {@code Contended} variants run the same
+ * operation on 8 threads sharing one pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DriverLifecycleBenchmark {
+
+    private static final String URL = "http://localhost/benchmark";
+
+    private static final String BROWSER = "chrome";
+
+    /**
+     * A scenario context per benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ScenarioState {
+
+        DriverManager driverManager;
+
+        @Setup(Level.Trial)
+        public void start(BenchmarkContext context) {
+            driverManager = context.getBean(DriverManager.class);
+            ScenarioContext.begin(FakeScenarios.scenario("lifecycle"));
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            driverManager.deleteDriver();
+            ScenarioContext.end();
+        }
+    }
+
+    /**
+     * A scenario context per benchmark thread holding a started driver.
+     */
+    @State(Scope.Thread)
+    public static class StartedState extends ScenarioState {
+
+        @Setup(Level.Trial)
+        public void populate() throws Exception {
+            driverManager.populateDriver();
+            driverManager.getDriver().webDriver().getWindowHandle();
+        }
+    }
+
+    @Benchmark
+    public WebDriver newInstance(BenchmarkContext context) throws Exception {
+        DriverFactory driverFactory = context.getBean(DriverFactory.class);
+        WebDriver driver = driverFactory.newInstance(URL, BROWSER, false);
+        driverFactory.destroy(driver);
+        return driver;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public WebDriver newInstanceContended(BenchmarkContext context) throws Exception {
+        return newInstance(context);
+    }
+
+    @Benchmark
+    public void populateAndDelete(ScenarioState state) throws Exception {
+        state.driverManager.populateDriver();
+        state.driverManager.deleteDriver();
+    }
+
+    @Benchmark
+    public String populateUseAndDelete(ScenarioState state) throws Exception {
+        state.driverManager.populateDriver();
+        String handle = state.driverManager.getDriver().webDriver().getWindowHandle();
+        state.driverManager.deleteDriver();
+        return handle;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String populateUseAndDeleteContended(ScenarioState state) throws Exception {
+        return populateUseAndDelete(state);
+    }
+
+    @Benchmark
+    public void refreshDriver(StartedState state) {
+        state.driverManager.refreshDriver();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void refreshDriverContended(StartedState state) {
+        state.driverManager.refreshDriver();
+    }
+}
@@ -0,0 +1,21 @@
+package com.follett.benchmarks;
+
+import com.follett.driver.factory.DriverFactory;
+import org.openqa.selenium.WebDriver;
+import org.springframework.beans.factory.annotation.Value;
+import java.time.Duration;
+
+/**
+ * FakeDriverFactory runs the real {@link DriverFactory} lifecycle around {@link FakeWebDriver} sessions instead of
+ * launching browsers.
+ */
+public class FakeDriverFactory extends DriverFactory {
+
+    @Value("${benchmark.command.latency.micros:0}")
+    private long commandLatencyMicros;
+
+    @Override
+    protected WebDriver getWebDriverFromSupplier(String browser, LocalSession session) {
+        return new FakeWebDriver(browser, Duration.ofNanos(commandLatencyMicros * 1_000));
+    }
+}
@@ -0,0 +1,56 @@
+package com.follett.benchmarks;
+
+import io.cucumber.core.backend.TestCaseState;
+import io.cucumber.java.Scenario;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * FakeScenarios builds Cucumber {@link Scenario} handles without running Cucumber. The handle wraps a
+ * {@link TestCaseState} proxy for a passing {@code @web} scenario that discards attachments.
+ */
+final class FakeScenarios {
+
+    private static final URI FEATURE = URI.create("classpath:features/benchmark.feature");
+
+    private static final Constructor<Scenario> CONSTRUCTOR;
+
+    static {
+        try {
+            CONSTRUCTOR = Scenario.class.getDeclaredConstructor(TestCaseState.class);
+            CONSTRUCTOR.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private FakeScenarios() {
+    }
+
+    static Scenario scenario(String name) {
+        TestCaseState state = (TestCaseState) Proxy.newProxyInstance(TestCaseState.class.getClassLoader(),
+                new Class<?>[]{TestCaseState.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getName", "getId" -> name;
+                    case "getUri" -> FEATURE;
+                    case "getLine" -> 1;
+                    case "getSourceTagNames" -> List.of("@web");
+                    case "isFailed", "equals" -> false;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "getStatus" -> statusPassed(method.getReturnType());
+                    case "toString" -> "FakeScenario[" + name + "]";
+                    default -> null;
+                });
+        try {
+            return CONSTRUCTOR.newInstance(state);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("FakeScenarios::scenario - Could not create the scenario", e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object statusPassed(Class<?> statusType) {
+        return Enum.valueOf((Class<? extends Enum>) statusType, "PASSED");
+    }
+}
@@ -0,0 +1,184 @@
+package com.follett.benchmarks;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * FakeWebDriver is an in-process stand-in for a browser session. Every command costs {@code commandLatency}, which
+ * stands for the WebDriver round-trip, so benchmarks measure the code around the driver rather than a browser.
+ * <p/>
+ * The nested {@link WebDriver.Options}, {@link WebDriver.Timeouts}, {@link WebDriver.Window} and
+ * {@link WebDriver.TargetLocator} views are proxies that accept every call.
+ */
+public class FakeWebDriver implements WebDriver, JavascriptExecutor, TakesScreenshot, HasCapabilities {
+
+    private static final AtomicLong SESSIONS = new AtomicLong();
+
+    private static final byte[] SCREENSHOT = new byte[64 * 1024];
+
+    private final String windowHandle = "window-" + SESSIONS.incrementAndGet();
+
+    private final Capabilities capabilities;
+
+    private final long commandLatencyNanos;
+
+    private String currentUrl = "about:blank";
+
+    private volatile boolean quit;
+
+    public FakeWebDriver(String browser, Duration commandLatency) {
+        this.capabilities = new ImmutableCapabilities("browserName", browser, "browserVersion", "fake");
+        this.commandLatencyNanos = commandLatency.toNanos();
+    }
+
+    @Override
+    public void get(String url) {
+        command();
+        currentUrl = url;
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        command();
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        command();
+        return "";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        command();
+        return List.of();
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        command();
+        throw new org.openqa.selenium.NoSuchElementException("FakeWebDriver has no elements: " + by);
+    }
+
+    @Override
+    public String getPageSource() {
+        command();
+        return "<html></html>";
+    }
+
+    @Override
+    public void close() {
+        command();
+    }
+
+    @Override
+    public void quit() {
+        command();
+        quit = true;
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        command();
+        return Set.of(windowHandle);
+    }
+
+    @Override
+    public String getWindowHandle() {
+        command();
+        return windowHandle;
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return view(TargetLocator.class);
+    }
+
+    @Override
+    public Navigation navigate() {
+        return view(Navigation.class);
+    }
+
+    @Override
+    public Options manage() {
+        return view(Options.class);
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        command();
+        return null;
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        command();
+        return null;
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        command();
+        return target.convertFromPngBytes(SCREENSHOT);
+    }
+
+    @Override
+    public Capabilities getCapabilities() {
+        return capabilities;
+    }
+
+    public boolean isQuit() {
+        return quit;
+    }
+
+    private void command() {
+        if (quit) {
+            throw new org.openqa.selenium.NoSuchSessionException("FakeWebDriver " + windowHandle + " was quit");
+        }
+        if (commandLatencyNanos > 0) {
+            LockSupport.parkNanos(commandLatencyNanos);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T view(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "FakeWebDriver." + type.getSimpleName();
+                };
+            }
+            command();
+            Class<?> returnType = method.getReturnType();
+            if (returnType.isInterface() && returnType.getName().startsWith(WebDriver.class.getName())) {
+                return returnType.isInstance(proxy) ? proxy : view(returnType);
+            }
+            if (returnType == WebDriver.class) {
+                return this;
+            }
+            if (returnType == Set.class) {
+                return Set.of();
+            }
+            if (returnType == boolean.class) {
+                return false;
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.follett.benchmarks;
+
+import com.follett.config.ScenarioConfig;
+import com.follett.driver.DriverManager;
+import io.cucumber.java.Scenario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link ScenarioConfig} hooks of a {@code @web} scenario in Cucumber order: before (order 0, 1), after
+ * {@code @web}, after (order 0). {@code touched} sends one command, so the lazy driver starts a session.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScenarioHooksBenchmark {
+
+    /**
+     * The hooks and the scenario handle of a benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class HookState {
+
+        ScenarioConfig scenarioConfig;
+
+        Scenario scenario;
+
+        @Setup(Level.Trial)
+        public void start(BenchmarkContext context) {
+            scenarioConfig = context.getBean(ScenarioConfig.class);
+            scenario = FakeScenarios.scenario("hooks-" + Thread.currentThread().getName());
+        }
+    }
+
+    @Benchmark
+    public void untouched(HookState state) throws Exception {
+        state.scenarioConfig.beforeScenario(state.scenario);
+        state.scenarioConfig.beforeWebScenario();
+        state.scenarioConfig.afterWebScenario();
+        state.scenarioConfig.afterScenario();
+    }
+
+    @Benchmark
+    public void touched(HookState state, BenchmarkContext context) throws Exception {
+        state.scenarioConfig.beforeScenario(state.scenario);
+        state.scenarioConfig.beforeWebScenario();
+        context.getBean(DriverManager.class).getDriver().webDriver().getWindowHandle();
+        state.scenarioConfig.afterWebScenario();
+        state.scenarioConfig.afterScenario();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void touchedContended(HookState state, BenchmarkContext context) throws Exception {
+        touched(state, context);
+    }
+}
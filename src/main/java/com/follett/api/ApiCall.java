@@ -0,0 +1,14 @@
+package com.follett.api;
+
+import java.time.Duration;
+
+/**
+ * A finished API call of a scenario.
+ *
+ * @param method  the HTTP method
+ * @param uri     the request URI
+ * @param status  the HTTP status code, -1 if no response was received
+ * @param latency how long the call took
+ */
+public record ApiCall(String method, String uri, int status, Duration latency) {
+}
@@ -0,0 +1,277 @@
+package com.follett.api;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.follett.context.ScenarioContext;
+import com.follett.metrics.DriverMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ApiClient is the HTTP client of API scenarios. Every call goes through one shared {@link HttpClient}, so
+ * connections to the API are pooled and kept alive across scenarios.
+ * <p/>
+ * Request bodies are serialized straight to bytes and response bodies are parsed from the response stream by
+ * Jackson, without an intermediate {@code String}. Fan-out calls ({@link #sendAll(List, Class)}) run concurrently on
+ * virtual threads when the JVM provides them and {@code api.virtual.threads} is on, on a pool of
+ * {@code api.threads} threads otherwise. That executor only parses bodies; the {@link HttpClient} delivers them on
+ * its own executor, so parsing threads blocked on a body never starve the threads that have to deliver it.
+ * <p/>
+ * The latency of every call is recorded as the {@code api.request} timer and in the {@link ScenarioContext} of the
+ * scenario that sent it, which attaches the calls to the report when it ends.
+ * <pre>
+ *     ApiResponse&lt;Order&gt; response = apiClient.send(ApiRequest.post("/orders", order), Order.class);
+ * </pre>
+ */
+@Component
+@Slf4j
+public class ApiClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private static final String JSON = "application/json";
+
+    private HttpClient httpClient;
+
+    private ExecutorService executor;
+
+    @Autowired
+    private DriverMetrics driverMetrics;
+
+    @Value("${api.base.url:}")
+    private String baseUrl;
+
+    @Value("${api.connect.timeout:10}")
+    private long connectTimeout;
+
+    @Value("${api.request.timeout:30}")
+    private long requestTimeout;
+
+    @Value("${api.virtual.threads:true}")
+    private boolean virtualThreads;
+
+    @Value("${api.threads:16}")
+    private int threads;
+
+    @PostConstruct
+    public void start() {
+        executor = newExecutor();
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(connectTimeout))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Sends a request and waits for the response.
+     *
+     * @param request the {@link ApiRequest}
+     * @param type    the body type
+     * @param <T>     the body type
+     * @return the {@link ApiResponse}
+     * @throws UncheckedIOException if the request could not be sent or the body could not be read
+     */
+    public <T> ApiResponse<T> send(ApiRequest request, Class<T> type) {
+        return join(sendAsync(request, MAPPER.constructType(type)));
+    }
+
+    /**
+     * Sends a request with a generic body type and waits for the response.
+     *
+     * @param request the {@link ApiRequest}
+     * @param type    the body type
+     * @param <T>     the body type
+     * @return the {@link ApiResponse}
+     * @throws UncheckedIOException if the request could not be sent or the body could not be read
+     */
+    public <T> ApiResponse<T> send(ApiRequest request, TypeReference<T> type) {
+        return join(sendAsync(request, MAPPER.constructType(type)));
+    }
+
+    /**
+     * Sends a request without waiting for the response.
+     *
+     * @param request the {@link ApiRequest}
+     * @param type    the body type
+     * @param <T>     the body type
+     * @return the future {@link ApiResponse}
+     */
+    public <T> CompletableFuture<ApiResponse<T>> sendAsync(ApiRequest request, Class<T> type) {
+        return sendAsync(request, MAPPER.constructType(type));
+    }
+
+    /**
+     * Sends several requests concurrently and waits for all the responses.
+     *
+     * @param requests the requests
+     * @param type     the body type
+     * @param <T>      the body type
+     * @return the responses, in request order
+     * @throws UncheckedIOException if a request could not be sent or a body could not be read
+     */
+    public <T> List<ApiResponse<T>> sendAll(List<ApiRequest> requests, Class<T> type) {
+        JavaType javaType = MAPPER.constructType(type);
+        List<CompletableFuture<ApiResponse<T>>> futures = requests.stream()
+                .map(request -> this.<T>sendAsync(request, javaType))
+                .toList();
+        return futures.stream().map(ApiClient::join).toList();
+    }
+
+    /**
+     * Attaches the API calls of a scenario to its report.
+     *
+     * @param context the {@link ScenarioContext}
+     */
+    public void attachCalls(ScenarioContext context) {
+        List<ApiCall> calls = context.getApiCalls();
+        if (calls.isEmpty() || context.getScenario() == null) {
+            return;
+        }
+        try {
+            context.attach(MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(calls.stream()
+                    .map(call -> new ApiCallReport(call.method(), call.uri(), call.status(),
+                            call.latency().toMillis()))
+                    .toList()), JSON, "API calls");
+        } catch (JsonProcessingException e) {
+            log.warn("ApiClient:attachCalls - Could not attach the API calls - " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<ApiResponse<T>> sendAsync(ApiRequest request, JavaType type) {
+        ScenarioContext context = ScenarioContext.current();
+        HttpRequest httpRequest = toHttpRequest(request);
+        long start = System.nanoTime();
+        return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApplyAsync(response -> this.<T>read(response, type, start), executor)
+                .whenComplete((response, error) -> {
+                    Duration latency = response != null ? response.latency()
+                            : Duration.ofNanos(System.nanoTime() - start);
+                    int status = response != null ? response.status() : -1;
+                    driverMetrics.record("api.request", latency, "method", request.method(),
+                            "status", String.valueOf(status));
+                    context.recordApiCall(new ApiCall(request.method(), httpRequest.uri().toString(), status,
+                            latency));
+                });
+    }
+
+    private <T> ApiResponse<T> read(HttpResponse<InputStream> response, JavaType type, long start) {
+        try (InputStream body = response.body()) {
+            int status = response.statusCode();
+            if (status < 200 || status >= 300) {
+                String error = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                return new ApiResponse<>(status, response.headers(), null, error,
+                        Duration.ofNanos(System.nanoTime() - start));
+            }
+            T value = null;
+            if (type.getRawClass() != Void.class) {
+                try (JsonParser parser = MAPPER.createParser(body)) {
+                    if (parser.nextToken() != null) {
+                        value = MAPPER.readValue(parser, type);
+                    }
+                }
+            }
+            return new ApiResponse<>(status, response.headers(), value, null,
+                    Duration.ofNanos(System.nanoTime() - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest toHttpRequest(ApiRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(resolve(request.path()))
+                .timeout(Duration.ofSeconds(requestTimeout))
+                .header("Accept", JSON);
+        request.headers().forEach(builder::header);
+        if (request.body() == null) {
+            builder.method(request.method(), HttpRequest.BodyPublishers.noBody());
+        } else {
+            try {
+                builder.header("Content-Type", JSON).method(request.method(),
+                        HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(request.body())));
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("ApiClient::send - The request body is not serializable", e);
+            }
+        }
+        return builder.build();
+    }
+
+    private URI resolve(String path) {
+        if (path.startsWith("http://") || path.startsWith("https://")) {
+            return URI.create(path);
+        }
+        if (baseUrl == null || baseUrl.isEmpty()) {
+            throw new IllegalStateException("ApiClient::send - api.base.url is not set, cannot resolve " + path);
+        }
+        return URI.create(baseUrl.replaceAll("/+$", "") + "/" + path.replaceAll("^/+", ""));
+    }
+
+    private ExecutorService newExecutor() {
+        if (virtualThreads) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.info("ApiClient:start - Virtual threads are not available on Java "
+                        + Runtime.version().feature() + ", using " + threads + " platform threads");
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "api-client-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException unchecked) {
+                throw unchecked;
+            }
+            if (e.getCause() instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private record ApiCallReport(String method, String uri, int status, long latencyMs) {
+    }
+}
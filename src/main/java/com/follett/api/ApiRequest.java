@@ -0,0 +1,44 @@
+package com.follett.api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An API request to send through the {@link ApiClient}.
+ *
+ * @param method  the HTTP method
+ * @param path    the path, resolved against {@code api.base.url}, or an absolute URL
+ * @param headers the request headers
+ * @param body    the body serialized as JSON, {@code null} for none
+ */
+public record ApiRequest(String method, String path, Map<String, String> headers, Object body) {
+
+    public static ApiRequest get(String path) {
+        return new ApiRequest("GET", path, Map.of(), null);
+    }
+
+    public static ApiRequest delete(String path) {
+        return new ApiRequest("DELETE", path, Map.of(), null);
+    }
+
+    public static ApiRequest post(String path, Object body) {
+        return new ApiRequest("POST", path, Map.of(), body);
+    }
+
+    public static ApiRequest put(String path, Object body) {
+        return new ApiRequest("PUT", path, Map.of(), body);
+    }
+
+    /**
+     * Returns a copy of this request with one more header.
+     *
+     * @param name  the header name
+     * @param value the header value
+     * @return the new {@link ApiRequest}
+     */
+    public ApiRequest withHeader(String name, String value) {
+        Map<String, String> copy = new LinkedHashMap<>(headers);
+        copy.put(name, value);
+        return new ApiRequest(method, path, Map.copyOf(copy), body);
+    }
+}
@@ -0,0 +1,21 @@
+package com.follett.api;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+
+/**
+ * An API response.
+ *
+ * @param status    the HTTP status code
+ * @param headers   the response headers
+ * @param body      the body deserialized from JSON, {@code null} when empty or when the call failed
+ * @param errorBody the raw body of a non-2xx response, {@code null} otherwise
+ * @param latency   the time from sending the request to having read the body
+ * @param <T>       the body type
+ */
+public record ApiResponse<T>(int status, HttpHeaders headers, T body, String errorBody, Duration latency) {
+
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+}
@@ -0,0 +1,46 @@
+package com.follett.config;
+
+import com.follett.metrics.DriverMetrics;
+import com.follett.report.RunEnvironment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * ContextStartupReporter measures how long the test context took to start, from the moment its bean factory is post
+ * processed until it is refreshed, and how long the JVM had been running by then. Both are logged, recorded as the
+ * {@code context.startup} timer and added to the Allure environment.
+ */
+@Slf4j
+public class ContextStartupReporter implements BeanFactoryPostProcessor, ApplicationListener<ContextRefreshedEvent> {
+
+    private final long createdAt = System.nanoTime();
+
+    private boolean reported;
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        // created as the first bean factory post processor, which marks the start of the refresh
+    }
+
+    @Override
+    public synchronized void onApplicationEvent(ContextRefreshedEvent event) {
+        if (reported) {
+            return;
+        }
+        reported = true;
+        Duration refresh = Duration.ofNanos(System.nanoTime() - createdAt);
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("ContextStartupReporter:onApplicationEvent - Test context started in " + refresh.toMillis()
+                + " ms, JVM uptime " + uptime + " ms");
+        ApplicationContext context = event.getApplicationContext();
+        context.getBean(DriverMetrics.class).record("context.startup", refresh, "phase", "refresh");
+        context.getBean(DriverMetrics.class).record("context.startup", Duration.ofMillis(uptime), "phase", "jvm");
+        context.getBean(RunEnvironment.class).put("context.startup.ms", String.valueOf(refresh.toMillis()));
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 @CucumberContextConfiguration
 @SpringBootTest(classes = SpringConfig.class,
-        properties = "spring.main.allow-bean-definition-overriding=true")
+        properties = {"spring.main.allow-bean-definition-overriding=true",
+                "spring.main.banner-mode=off",
+                "spring.main.log-startup-info=false"})
 public class CucumberSpringConfiguration {
 }
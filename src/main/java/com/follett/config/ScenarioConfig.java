@@ -1,51 +1,71 @@
 package com.follett.config;
 
-import static com.github.automatedowl.tools.AllureEnvironmentWriter.allureEnvironmentWriter;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
+import com.follett.api.ApiClient;
+import com.follett.context.ScenarioContext;
 import com.follett.driver.DriverManager;
-import com.google.common.collect.ImmutableMap;
+import com.follett.matrix.BrowserMatrix;
+import com.follett.report.ScreenshotPipeline;
+import com.follett.shard.ShardHistoryRecorder;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
-import io.cucumber.java.BeforeAll;
 import io.cucumber.java.Scenario;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import java.time.Duration;
 
 
 public class ScenarioConfig {
     @Autowired
     private DriverManager driverManager;
-    public static Scenario SCENARIO;
+    @Autowired
+    private ScreenshotPipeline screenshotPipeline;
+    @Autowired
+    private ShardHistoryRecorder shardHistoryRecorder;
+    @Autowired
+    private ApiClient apiClient;
     @Value("${browser:API}")
     public String browser;
     @Value("${env}")
     public String environment;
+    @Value("${attachment.await.seconds:30}")
+    private long attachmentAwaitSeconds;
     @Before(value = "@web", order = 1)
     public void beforeWebScenario() throws Exception {
+        BrowserMatrix.labelScenario();
         driverManager.populateDriver();
     }
     @After("@web")
     public void afterWebScenario() {
-        if(SCENARIO.isFailed()){
-            TakesScreenshot takesScreenshot = (TakesScreenshot)driverManager.getDriver().webDriver();
-            final byte[] screenshot = takesScreenshot.getScreenshotAs(OutputType.BYTES);
-            SCENARIO.attach(screenshot, "image/png", SCENARIO.getName());
+        ScenarioContext context = ScenarioContext.current();
+        try {
+            if(context.getScenario().isFailed() && driverManager.isDriverStarted()){
+                TakesScreenshot takesScreenshot = (TakesScreenshot)driverManager.getDriver().webDriver();
+                final byte[] screenshot = takesScreenshot.getScreenshotAs(OutputType.BYTES);
+                screenshotPipeline.submit(context, screenshot, context.getScenario().getName());
+                driverManager.attachBrowserLog(context);
+            }
+        } finally {
+            driverManager.deleteDriver();
+        }
+    }
+    @After(order = 0)
+    public void afterScenario() {
+        ScenarioContext context = ScenarioContext.current();
+        try {
+            apiClient.attachCalls(context);
+            driverManager.deleteDriver();
+        } finally {
+            if (context.getScenario() != null) {
+                shardHistoryRecorder.record(context.getScenario(), context.getElapsed());
+                context.awaitAttachments(Duration.ofSeconds(attachmentAwaitSeconds));
+            }
+            ScenarioContext.end();
         }
-        driverManager.deleteDriver();
     }
     @Before(order = 0)
     public void beforeScenario(Scenario scenario) {
-        SCENARIO = scenario;
-        allureEnvironmentWriter(
-                ImmutableMap.of(
-                        "Browser", browser,
-                        "Environment", environment,
-                        "Browser.Version", "87.0.4280.88"),
-                System.getProperty("user.dir") + "/allure-reports/");
-    }
-    @BeforeAll
-    void setAllureEnvironment() {
-        // todo put the allureEnvironmentWriter here
+        ScenarioContext.begin(scenario);
     }
 }
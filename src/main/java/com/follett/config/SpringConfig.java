@@ -1,11 +1,67 @@
 package com.follett.config;
 
+import com.follett.api.ApiClient;
+import com.follett.driver.DriverManager;
+import com.follett.driver.download.DownloadDirectories;
+import com.follett.driver.factory.DriverBinaryResolver;
+import com.follett.driver.factory.DriverFactory;
+import com.follett.driver.grid.GridConcurrencyGovernor;
+import com.follett.driver.grid.GridTransport;
+import com.follett.driver.pool.DriverPool;
+import com.follett.driver.pool.DriverPrefetcher;
+import com.follett.driver.profile.BrowserProfiles;
+import com.follett.driver.registry.SessionRegistry;
+import com.follett.driver.session.SessionStateCache;
+import com.follett.driver.wait.WaitRecorder;
+import com.follett.metrics.DriverMetrics;
+import com.follett.report.RunEnvironment;
+import com.follett.report.ScreenshotPipeline;
+import com.follett.report.browserlog.BrowserLogCapture;
+import com.follett.report.pagetiming.PageTimingRecorder;
+import com.follett.shard.ShardHistoryRecorder;
+import org.springframework.boot.LazyInitializationBeanFactoryPostProcessor;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.gson.GsonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
+/**
+ * SpringConfig wires the test context explicitly: only the beans imported here are created, without component scanning
+ * or auto-configuration, and by default lazily ({@code test.context.lazy=true}), so a bean is only built when the
+ * first scenario needs it. Step definition classes are registered as beans by Cucumber itself.
+ * <p/>
+ * {@code test.context.mode=full} restores the previous context: auto-configuration plus the component scan of
+ * {@code com.aepenergy.nextstar.automation}. Startup time is reported by the {@link ContextStartupReporter}.
+ */
 @Configuration
-@ComponentScan(basePackages = "com.aepenergy.nextstar.automation")
-@EnableAutoConfiguration(exclude = {org.springframework.boot.autoconfigure.gson.GsonAutoConfiguration.class})
+@Import({DriverManager.class, DriverFactory.class, DriverBinaryResolver.class, DriverPool.class,
+        DriverPrefetcher.class, DownloadDirectories.class, GridTransport.class, GridConcurrencyGovernor.class,
+        SessionRegistry.class, SessionStateCache.class, WaitRecorder.class, BrowserProfiles.class,
+        DriverMetrics.class, RunEnvironment.class, ScreenshotPipeline.class, ShardHistoryRecorder.class,
+        ApiClient.class, BrowserLogCapture.class, PageTimingRecorder.class})
 public class SpringConfig {
+
+    @Bean
+    public static ContextStartupReporter contextStartupReporter() {
+        return new ContextStartupReporter();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "test.context.lazy", havingValue = "true", matchIfMissing = true)
+    public static LazyInitializationBeanFactoryPostProcessor lazyInitialization() {
+        return new LazyInitializationBeanFactoryPostProcessor();
+    }
+
+    /**
+     * The full Spring Boot context, only used with {@code test.context.mode=full}.
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "test.context.mode", havingValue = "full")
+    @ComponentScan(basePackages = "com.aepenergy.nextstar.automation")
+    @EnableAutoConfiguration(exclude = {GsonAutoConfiguration.class})
+    static class FullContext {
+    }
 }
@@ -0,0 +1,190 @@
+package com.follett.context;
+
+import com.follett.api.ApiCall;
+import com.follett.driver.Driver;
+import io.cucumber.java.Scenario;
+import lombok.extern.slf4j.Slf4j;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ScenarioContext holds the state of the scenario running on the current thread: the Cucumber {@link Scenario}
+ * handle, the {@link Driver} attached to it, the attachments produced so far and the API calls it made.
+ * <p/>
+ * The context is confined to the thread executing the scenario, so scenarios running in parallel never see each
+ * other's driver or attachments. A new context is opened by {@link #begin(Scenario)} and discarded by {@link #end()}.
+ * <p/>
+ * Attachments that are still being produced in the background are registered with
+ * {@link #attachLater(CompletableFuture, String, String)} and attached on the scenario thread by
+ * {@link #awaitAttachments(Duration)}, which the last after-hook calls.
+ */
+@Slf4j
+public final class ScenarioContext {
+
+    private static final ThreadLocal<ScenarioContext> CONTEXT = ThreadLocal.withInitial(ScenarioContext::new);
+
+    private final Scenario scenario;
+
+    private final List<Attachment> attachments = new ArrayList<>();
+
+    private final List<PendingAttachment> pending = new ArrayList<>();
+
+    private final List<ApiCall> apiCalls = Collections.synchronizedList(new ArrayList<>());
+
+    private final long startedAt = System.nanoTime();
+
+    private Driver driver;
+
+    private ScenarioContext() {
+        this(null);
+    }
+
+    private ScenarioContext(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    /**
+     * Opens a new context for the given scenario on the current thread, discarding any previous one.
+     *
+     * @param scenario the {@link Scenario}
+     * @return the new {@link ScenarioContext}
+     */
+    public static ScenarioContext begin(Scenario scenario) {
+        ScenarioContext context = new ScenarioContext(scenario);
+        CONTEXT.set(context);
+        return context;
+    }
+
+    /**
+     * Gets the context of the current thread.
+     *
+     * @return the {@link ScenarioContext}
+     */
+    public static ScenarioContext current() {
+        return CONTEXT.get();
+    }
+
+    /**
+     * Discards the context of the current thread.
+     */
+    public static void end() {
+        CONTEXT.remove();
+    }
+
+    /**
+     * Attaches data to the scenario and records it in this context.
+     *
+     * @param data      the data to attach
+     * @param mediaType the media type of the data
+     * @param name      the attachment name
+     */
+    public void attach(byte[] data, String mediaType, String name) {
+        if (scenario == null) {
+            throw new IllegalStateException("ScenarioContext::attach - No scenario is running on this thread");
+        }
+        scenario.attach(data, mediaType, name);
+        attachments.add(new Attachment(name, mediaType, data.length));
+    }
+
+    /**
+     * Registers an attachment that is still being produced. It is attached by {@link #awaitAttachments(Duration)};
+     * a {@code null} result is not attached.
+     *
+     * @param data      the future data to attach
+     * @param mediaType the media type of the data
+     * @param name      the attachment name
+     */
+    public void attachLater(CompletableFuture<byte[]> data, String mediaType, String name) {
+        if (scenario == null) {
+            throw new IllegalStateException("ScenarioContext::attachLater - No scenario is running on this thread");
+        }
+        pending.add(new PendingAttachment(data, mediaType, name));
+    }
+
+    /**
+     * Waits for the attachments registered with {@link #attachLater(CompletableFuture, String, String)} and attaches
+     * them. Attachments that fail or are not ready within the timeout are skipped.
+     *
+     * @param timeout the maximum time to wait for all of them
+     */
+    public void awaitAttachments(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            for (PendingAttachment attachment : pending) {
+                try {
+                    byte[] data = attachment.data().get(Math.max(0, deadline - System.nanoTime()),
+                            TimeUnit.NANOSECONDS);
+                    if (data != null) {
+                        attach(data, attachment.mediaType(), attachment.name());
+                    }
+                } catch (ExecutionException | TimeoutException e) {
+                    log.warn("ScenarioContext:awaitAttachments - {} was not attached - {}", attachment.name(),
+                            e instanceof TimeoutException ? "not ready in time" : e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pending.clear();
+        }
+    }
+
+    /**
+     * Gets the time elapsed since the context was opened.
+     *
+     * @return the elapsed {@link Duration}
+     */
+    public Duration getElapsed() {
+        return Duration.ofNanos(System.nanoTime() - startedAt);
+    }
+
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    public Driver getDriver() {
+        return driver;
+    }
+
+    public void setDriver(Driver driver) {
+        this.driver = driver;
+    }
+
+    public List<Attachment> getAttachments() {
+        return Collections.unmodifiableList(attachments);
+    }
+
+    /**
+     * Records a finished API call. Safe to call from the thread completing an asynchronous call.
+     *
+     * @param call the {@link ApiCall}
+     */
+    public void recordApiCall(ApiCall call) {
+        apiCalls.add(call);
+    }
+
+    public List<ApiCall> getApiCalls() {
+        synchronized (apiCalls) {
+            return List.copyOf(apiCalls);
+        }
+    }
+
+    /**
+     * An attachment made to the scenario.
+     *
+     * @param name      the attachment name
+     * @param mediaType the media type
+     * @param size      the size in bytes
+     */
+    public record Attachment(String name, String mediaType, int size) {
+    }
+
+    private record PendingAttachment(CompletableFuture<byte[]> data, String mediaType, String name) {
+    }
+}
@@ -1,8 +1,9 @@
 package com.follett.driver;
 
+import com.follett.driver.wait.Waits;
 import org.openqa.selenium.WebDriver;
 
-public record Driver(String browser, WebDriver webDriver) {
+public record Driver(String browser, WebDriver webDriver, Waits waits) {
 
     public static final String CHROME = "chrome";
     public static final String IEXPLORER = "iexplorer";
@@ -1,6 +1,21 @@
 package com.follett.driver;
 
+import com.follett.context.ScenarioContext;
+import com.follett.driver.download.DownloadDirectories;
 import com.follett.driver.factory.DriverFactory;
+import com.follett.driver.pool.DriverPool;
+import com.follett.driver.pool.DriverPrefetcher;
+import com.follett.driver.profile.BrowserProfile;
+import com.follett.driver.profile.BrowserProfiles;
+import com.follett.driver.session.SessionStateCache;
+import com.follett.driver.wait.WaitRecorder;
+import com.follett.driver.wait.Waits;
+import com.follett.matrix.BrowserMatrix;
+import com.follett.metrics.DriverMetrics;
+import com.follett.report.RunEnvironment;
+import com.follett.report.browserlog.BrowserLogCapture;
+import com.follett.report.pagetiming.PageTimingRecorder;
+import io.cucumber.java.Scenario;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.WebDriver;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,23 +24,49 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Iterator;
-import java.util.Set;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 /**
  * DriverManager manages the web webDriver instantiation based on the configuration properties.
  * <p/>
  * DriverManager delegates the webDriver building process to {@link DriverFactory}.
  * <p/>
- * DriverManager supports running test in parallel by storing the drivers created in an array of {@link
- * InheritableThreadLocal}. By doing this, it ensures  that every thread (test method under execution) will receive a
- * new instance of the particular webDriver.
+ * DriverManager supports running test in parallel by storing the driver created in the thread-confined
+ * {@link ScenarioContext}. By doing this, it ensures that every thread (scenario under execution) will receive a
+ * new instance of the particular webDriver, and that a driver never leaks into another scenario.
+ * <p/>
+ * Drivers are leased from the {@link DriverPool} and handed back to it on {@link #deleteDriver()}, so a browser
+ * session is reused across scenarios instead of being quit and launched again.
+ * <p/>
+ * With {@code driver.lazy=true} (the default) the driver handed out is a {@link LazyDriver}: the session is only leased
+ * when a step sends the first command, and scenarios that never touch the browser do not launch one at all.
+ * <p/>
+ * With {@code driver.prefetch.depth} above 0 the {@link DriverPrefetcher} builds the next sessions in the background
+ * while the current scenario runs, and the pool hands them out when it has no idle session to reuse. Prefetching
+ * only starts once a started driver found no idle session, so scenarios that never touch the browser or keep reusing
+ * idle sessions do not launch extra browsers.
+ * <p/>
+ * Drivers run without implicit wait; steps wait through {@link Driver#waits()}.
+ * <p/>
+ * The browser is launched with the {@link BrowserProfile} selected by the scenario's {@code @profile:<name>} tag, or
+ * the default profile of the local or remote mode, see {@link BrowserProfiles}.
+ * <p/>
+ * The browser console and network activity of every leased session is buffered by the {@link BrowserLogCapture} and
+ * only attached to the report of a failed scenario, see {@link #attachBrowserLog(ScenarioContext)}.
+ * <p/>
+ * With {@code page.timing.enabled=true} every page the scenario leaves, and the last one, is sampled by the
+ * {@link PageTimingRecorder}; the driver is then always a {@link LazyDriver}, started right away when
+ * {@code driver.lazy=false}.
+ * <p/>
+ * In a matrix run the browser comes from the {@link BrowserMatrix} of the scenario thread instead of the
+ * {@code browser} property, see {@link #getBrowser()}.
  */
 @Component
 @Slf4j
 public class DriverManager {
 
-    private final InheritableThreadLocal<Driver> driverInheritableThreadLocal = new InheritableThreadLocal<>();
-
     @Value("${ns.web.cas.url}")
     private String url;
 
@@ -38,6 +79,39 @@ public class DriverManager {
     @Autowired
     private DriverFactory driverFactory;
 
+    @Autowired
+    private DriverPool driverPool;
+
+    @Autowired
+    private RunEnvironment runEnvironment;
+
+    @Autowired
+    private DownloadDirectories downloadDirectories;
+
+    @Autowired
+    private DriverMetrics driverMetrics;
+
+    @Autowired
+    private SessionStateCache sessionStateCache;
+
+    @Autowired
+    private WaitRecorder waitRecorder;
+
+    @Autowired
+    private BrowserProfiles browserProfiles;
+
+    @Autowired
+    private BrowserLogCapture browserLogCapture;
+
+    @Autowired
+    private PageTimingRecorder pageTimingRecorder;
+
+    @Value("${wait.default.timeout:${implicit.time.out:10}}")
+    private long defaultWaitTimeout;
+
+    @Value("${driver.lazy:true}")
+    private boolean lazy;
+
     private boolean cleanSession = false;
 
     /**
@@ -46,11 +120,66 @@ public class DriverManager {
      * @throws IOException if the provider file does not exist or if it is invalid.
      */
     public void populateDriver() throws Exception {
-        WebDriver driver = driverFactory.newInstance(url, browser, remote);
+        Scenario scenario = ScenarioContext.current().getScenario();
+        String browser = getBrowser();
+        BrowserProfile profile = browserProfiles.select(
+                scenario == null ? List.of() : scenario.getSourceTagNames(), remote);
+        WebDriver driver;
+        if (lazy || pageTimingRecorder.isEnabled()) {
+            LazyDriver lazyDriver = LazyDriver.of(() -> startDriver(browser, profile),
+                    pageTimingRecorder.navigationListener());
+            if (!lazy) {
+                lazyDriver.getWrappedDriver();
+            }
+            driver = lazyDriver;
+        } else {
+            driver = startDriver(browser, profile);
+        }
+        Waits waits = new Waits(driver, waitRecorder, Duration.ofSeconds(defaultWaitTimeout));
+        ScenarioContext.current().setDriver(new Driver(browser, driver, waits));
+    }
+
+    /**
+     * Leases a session from the {@link DriverPool} and prepares it for the current scenario.
+     *
+     * @param browser the browser name
+     * @param profile the {@link BrowserProfile}
+     * @return the {@link WebDriver}
+     * @throws Exception if the session could not be created.
+     */
+    private WebDriver startDriver(String browser, BrowserProfile profile) throws Exception {
+        WebDriver driver = driverPool.lease(url, browser, profile, remote);
+        runEnvironment.recordSession(driver);
+        browserLogCapture.begin(driver);
         if (isCleanSession()) {
             driver.manage().deleteAllCookies();
         }
-        driverInheritableThreadLocal.set(new Driver(browser, driver));
+        return driver;
+    }
+
+    /**
+     * Checks whether the webDriver for the current test execution has a live browser session behind it.
+     *
+     * @return {@code false} if there is no driver or it is a {@link LazyDriver} that was never used
+     */
+    public boolean isDriverStarted() {
+        Driver driver = getDriver();
+        if (driver == null || driver.webDriver() == null) {
+            return false;
+        }
+        return !(driver.webDriver() instanceof LazyDriver lazyDriver) || lazyDriver.isStarted();
+    }
+
+    /**
+     * Attaches the browser console and network log of the webDriver for the current test execution to the report.
+     * Nothing is attached when the driver was never started.
+     *
+     * @param context the {@link ScenarioContext}
+     */
+    public void attachBrowserLog(ScenarioContext context) {
+        if (isDriverStarted()) {
+            browserLogCapture.attach(context, LazyDriver.unwrap(getDriver().webDriver()));
+        }
     }
 
     /**
@@ -59,21 +188,26 @@ public class DriverManager {
      * @return the {@link WebDriver}
      */
     public Driver getDriver() {
-        return driverInheritableThreadLocal.get();
+        return ScenarioContext.current().getDriver();
     }
 
     /**
-     * Deletes the webDriver for the current test execution.
+     * Deletes the webDriver for the current test execution, returning its session to the {@link DriverPool}. A
+     * {@link LazyDriver} that was never used is simply dropped.
      */
     public void deleteDriver() {
         Driver driver = getDriver();
         if (driver != null && driver.webDriver() != null) {
-            driverInheritableThreadLocal.remove();
-            try {
-                driver.webDriver().quit();
-            } catch (Exception e) {
-                log.error("DriverManager:deleteDriver - Unable to close all browsers instances - " + e.getMessage(), e);
+            boolean started = isDriverStarted();
+            ScenarioContext.current().setDriver(null);
+            if (!started) {
+                driverMetrics.increment("driver.launch.avoided", "browser", driver.browser());
+                return;
             }
+            WebDriver webDriver = LazyDriver.unwrap(driver.webDriver());
+            pageTimingRecorder.capture(webDriver);
+            driverMetrics.timer("driver.teardown", "op", "release", "browser", driver.browser())
+                    .record(() -> driverPool.release(url, driver.browser(), webDriver));
         }
     }
 
@@ -81,24 +215,32 @@ public class DriverManager {
      * Refreshes the webDriver for the current test execution.
      */
     public void refreshDriver() {
-        WebDriver driver = getDriver().webDriver();
+        WebDriver driver = LazyDriver.unwrap(getDriver().webDriver());
         if (driver != null) {
-            Set<String> windowHandles = driver.getWindowHandles();
-            if (windowHandles.size() > 1) {
-                Iterator<String> iterator = windowHandles.iterator();
-                iterator.next();
-                while (iterator.hasNext()) {
-                    String windowHandle = iterator.next();
-                    driver.switchTo().window(windowHandle);
-                    driver.close();
+            String browser = getDriver().browser();
+            pageTimingRecorder.capture(driver);
+            driverMetrics.timer("driver.reset", "op", "refresh", "browser", browser).record(() -> {
+                try {
+                    driverPool.reset(driver, url);
+                } catch (RuntimeException e) {
+                    driverMetrics.increment("driver.reset.failure", "op", "refresh", "browser", browser);
+                    throw e;
                 }
-            }
-            driver.switchTo().defaultContent();
-            driver.manage().deleteAllCookies();
-            driver.get(url);
+            });
         }
     }
 
+    /**
+     * Authenticates the webDriver for the current test execution as the given role, replaying a cached login when one
+     * is still valid and running the real login otherwise.
+     *
+     * @param role  the user or role name
+     * @param login performs the real UI login on the driver
+     */
+    public void authenticate(String role, Consumer<WebDriver> login) {
+        sessionStateCache.authenticate(getDriver().webDriver(), role, login);
+    }
+
     /**
      * Gets an auxiliary web webDriver instance not attached to {@link DriverManager}.
      *
@@ -117,13 +259,34 @@ public class DriverManager {
      * @throws IOException if the provider file does not exist or if it is invalid.
      */
     public WebDriver getAuxiliaryWebDriverInstance(String url) throws Exception {
-        WebDriver driver = driverFactory.newInstance(url, browser, remote);
+        WebDriver driver = driverFactory.newInstance(url, getBrowser(), remote);
         if (isCleanSession()) {
             driver.manage().deleteAllCookies();
         }
         return driver;
     }
 
+    /**
+     * Gets the download directory of the webDriver for the current test execution.
+     *
+     * @return the {@link Path}, empty for remote drivers
+     */
+    public Optional<Path> getDownloadDirectory() {
+        return downloadDirectories.getDownloadDirectory(LazyDriver.unwrap(getDriver().webDriver()));
+    }
+
+    /**
+     * Waits until a file matching the glob has been downloaded by the webDriver for the current test execution.
+     *
+     * @param glob    the file name glob, e.g. {@code *.pdf}
+     * @param timeout the maximum time to wait
+     * @return the {@link Path} of the downloaded file
+     * @throws IOException if the download directory cannot be watched.
+     */
+    public Path awaitDownload(String glob, Duration timeout) throws IOException {
+        return downloadDirectories.awaitDownload(LazyDriver.unwrap(getDriver().webDriver()), glob, timeout);
+    }
+
     public static Path getDownloadDirector() {
         return Paths.get("downloads");
     }
@@ -144,8 +307,13 @@ public class DriverManager {
         this.url = url;
     }
 
+    /**
+     * Gets the browser scenarios on this thread run with.
+     *
+     * @return the {@link BrowserMatrix} browser in a matrix run, the {@code browser} property otherwise
+     */
     public String getBrowser() {
-        return browser;
+        return BrowserMatrix.browserOr(browser);
     }
 
     public void setBrowser(String browser) {
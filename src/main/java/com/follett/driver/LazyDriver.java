@@ -0,0 +1,152 @@
+package com.follett.driver;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.interactions.Interactive;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * LazyDriver is a {@link WebDriver} that starts the real browser session only when the first command is sent to it.
+ * <p/>
+ * {@link #getWrappedDriver()} also starts the session and returns the real driver; {@link #isStarted()} can be used to
+ * find out whether a session was ever started without starting one.
+ * <p/>
+ * An optional navigation listener is called with the real driver before every {@code get} and every
+ * {@code navigate()} call, while the page being left is still loaded.
+ */
+public interface LazyDriver extends WebDriver, JavascriptExecutor, TakesScreenshot, HasCapabilities, Interactive,
+        WrapsDriver {
+
+    /**
+     * Checks whether the real session has been started.
+     *
+     * @return {@code true} once the first command was sent
+     */
+    boolean isStarted();
+
+    /**
+     * Returns a proxy that starts the session with the given starter on its first command.
+     *
+     * @param starter creates the real {@link WebDriver}
+     * @return the {@link LazyDriver}
+     */
+    static LazyDriver of(Callable<WebDriver> starter) {
+        return of(starter, null);
+    }
+
+    /**
+     * Returns a proxy that starts the session with the given starter on its first command and calls the listener
+     * before every navigation.
+     *
+     * @param starter          creates the real {@link WebDriver}
+     * @param beforeNavigation called with the real {@link WebDriver} before it navigates, may be {@code null}
+     * @return the {@link LazyDriver}
+     */
+    static LazyDriver of(Callable<WebDriver> starter, Consumer<WebDriver> beforeNavigation) {
+        return (LazyDriver) Proxy.newProxyInstance(LazyDriver.class.getClassLoader(),
+                new Class<?>[]{LazyDriver.class}, new Handler(starter, beforeNavigation));
+    }
+
+    /**
+     * Returns the real driver behind a {@link LazyDriver}, starting it if needed, or the driver itself otherwise.
+     *
+     * @param driver the {@link WebDriver}
+     * @return the real {@link WebDriver}
+     */
+    static WebDriver unwrap(WebDriver driver) {
+        return driver instanceof LazyDriver lazyDriver ? lazyDriver.getWrappedDriver() : driver;
+    }
+
+    /**
+     * Invocation handler that materializes the session on the first call.
+     */
+    final class Handler implements InvocationHandler {
+
+        private static final Set<String> NAVIGATIONS = Set.of("to", "back", "forward", "refresh");
+
+        private final Callable<WebDriver> starter;
+
+        private final Consumer<WebDriver> beforeNavigation;
+
+        private volatile WebDriver delegate;
+
+        private Handler(Callable<WebDriver> starter, Consumer<WebDriver> beforeNavigation) {
+            this.starter = starter;
+            this.beforeNavigation = beforeNavigation;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "isStarted":
+                    return delegate != null;
+                case "getWrappedDriver":
+                    return start();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return delegate == null ? "LazyDriver(not started)" : "LazyDriver(" + delegate + ")";
+                default:
+                    WebDriver driver = start();
+                    if (beforeNavigation != null && "get".equals(method.getName())) {
+                        beforeNavigation.accept(driver);
+                    }
+                    Object result = invoke(driver, method, args);
+                    if (beforeNavigation != null && result instanceof Navigation navigation) {
+                        return listen(driver, navigation);
+                    }
+                    return result;
+            }
+        }
+
+        private Navigation listen(WebDriver driver, Navigation navigation) {
+            return (Navigation) Proxy.newProxyInstance(Navigation.class.getClassLoader(),
+                    new Class<?>[]{Navigation.class}, (proxy, method, args) -> {
+                        if (NAVIGATIONS.contains(method.getName())) {
+                            beforeNavigation.accept(driver);
+                        }
+                        return invoke(navigation, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private WebDriver start() {
+            WebDriver driver = delegate;
+            if (driver == null) {
+                synchronized (this) {
+                    driver = delegate;
+                    if (driver == null) {
+                        try {
+                            driver = starter.call();
+                        } catch (RuntimeException e) {
+                            throw e;
+                        } catch (Exception e) {
+                            throw new WebDriverException("Unable to start the browser session", e);
+                        }
+                        delegate = driver;
+                    }
+                }
+            }
+            return driver;
+        }
+    }
+}
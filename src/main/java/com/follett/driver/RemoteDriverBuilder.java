@@ -1,93 +1,154 @@
 package com.follett.driver;
 
-import java.util.HashMap;
 import static java.time.Duration.ofSeconds;
 import static org.openqa.selenium.UnexpectedAlertBehaviour.DISMISS;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.time.Duration;
 import java.util.Map;
-import java.util.function.Supplier;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import com.follett.driver.grid.GridTransport;
+import com.follett.driver.profile.BrowserProfile;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.ImmutableCapabilities;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.ie.InternetExplorerOptions;
-import org.openqa.selenium.remote.AbstractDriverOptions;
 import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.HttpCommandExecutor;
 import org.openqa.selenium.remote.LocalFileDetector;
 import org.openqa.selenium.remote.RemoteWebDriver;
 /**
  * RemoteDriverBuilder represents the main interface for building remote drivers.
+ * <p/>
+ * Capabilities are computed once per JVM and {@link BrowserProfile} as immutable templates, the
+ * {@link BrowserProfile#HEADLESS} profile being the default. When a {@link GridTransport} is set, sessions
+ * share its pooled HTTP client, and session creation waits for the grid's {@code /status} to report ready and is
+ * retried with exponential backoff.
  */
+@Slf4j
 public class RemoteDriverBuilder {
 
+    private static final Set<String> BROWSERS = Set.of("chrome", "firefox", "iexplorer", "edge");
+
+    private static final Map<TemplateKey, Capabilities> CAPABILITY_TEMPLATES = new ConcurrentHashMap<>();
+
     private String remoteURL;
-    private final Map<String, Supplier<AbstractDriverOptions<? extends AbstractDriverOptions>>> capabilityStrategy;
-    private AbstractDriverOptions<? extends AbstractDriverOptions> capabilities;
+    private Capabilities capabilities;
+    private GridTransport gridTransport;
 
-    /**
-     * Default constructor.
-     */
-    public RemoteDriverBuilder() {
-        capabilityStrategy = new HashMap<>();
-        capabilityStrategy.put("chrome", () -> {
-            ChromeOptions options = new ChromeOptions();
-            options
-                    .setHeadless(true)
-                    .addArguments("--disable-extensions")
-                    .addArguments("--no-sandbox")
-                    .addArguments("--ignore-certificate-errors")
-                    .addArguments("enable-automation")
-                    .addArguments("--window-size=1920,1200");
-            return options;
-        });
-        capabilityStrategy.put("firefox", () -> {
-            FirefoxOptions options = new FirefoxOptions();
-            options.addArguments("-headless")
-                    .addArguments("-width=1920")
-                    .addArguments("-height=1200")
-                    .setUnhandledPromptBehaviour(DISMISS);
-            return options;
-        });
-        capabilityStrategy.put("iexplorer", () -> {
-            InternetExplorerOptions options = new InternetExplorerOptions();
-            options
-                    .enablePersistentHovering()
-                    .ignoreZoomSettings()
-                    .introduceFlakinessByIgnoringSecurityDomains()
-                    .requireWindowFocus()
-                    .disableNativeEvents()
-                    .withAttachTimeout(ofSeconds(45))
-                    .merge(new DesiredCapabilities(
-                            Map.of("ensureCleanSession", true,
-                                    "unexpectedAlertBehaviour", "accept",
-                                    "disable-popup-blocking", true)));
-            return options;
-        });
-        capabilityStrategy.put("edge", EdgeOptions::new);
+    private static Capabilities newTemplate(TemplateKey key) {
+        return switch (key.browser()) {
+            case "chrome" -> chromeCapabilities(key.profile());
+            case "firefox" -> firefoxCapabilities(key.profile());
+            case "iexplorer" -> iexplorerCapabilities();
+            default -> new ImmutableCapabilities(key.profile().applyTo(new EdgeOptions(), null).asMap());
+        };
+    }
+
+    private static Capabilities chromeCapabilities(BrowserProfile profile) {
+        ChromeOptions options = profile.applyTo(new ChromeOptions(), null);
+        options
+                .addArguments("--no-sandbox")
+                .addArguments("--ignore-certificate-errors")
+                .addArguments("enable-automation");
+        return new ImmutableCapabilities(options.asMap());
     }
 
+    private static Capabilities firefoxCapabilities(BrowserProfile profile) {
+        FirefoxOptions options = profile.applyTo(new FirefoxOptions(), null);
+        options.setUnhandledPromptBehaviour(DISMISS);
+        return new ImmutableCapabilities(options.asMap());
+    }
+
+    private static Capabilities iexplorerCapabilities() {
+        InternetExplorerOptions options = new InternetExplorerOptions();
+        options
+                .enablePersistentHovering()
+                .ignoreZoomSettings()
+                .introduceFlakinessByIgnoringSecurityDomains()
+                .requireWindowFocus()
+                .disableNativeEvents()
+                .withAttachTimeout(ofSeconds(45))
+                .merge(new DesiredCapabilities(
+                        Map.of("ensureCleanSession", true,
+                                "unexpectedAlertBehaviour", "accept",
+                                "disable-popup-blocking", true)));
+        return new ImmutableCapabilities(options.asMap());
+    }
 
     public WebDriver build() throws MalformedURLException {
         if ((remoteURL == null || remoteURL.isEmpty()) || capabilities == null) {
             throw new IllegalArgumentException("error");
         }
-        RemoteWebDriver remoteWebDriver = new RemoteWebDriver(new URL(remoteURL), capabilities);
+        RemoteWebDriver remoteWebDriver = gridTransport == null
+                ? new RemoteWebDriver(new URL(remoteURL), capabilities)
+                : buildWithRetry();
         remoteWebDriver.setFileDetector(new LocalFileDetector());
         return remoteWebDriver;
     }
 
+    private RemoteWebDriver buildWithRetry() throws MalformedURLException {
+        Duration backoff = gridTransport.getInitialBackoff();
+        WebDriverException lastFailure = null;
+        for (int attempt = 1; attempt <= gridTransport.getSessionAttempts(); attempt++) {
+            if (gridTransport.getStatusClient().isReady(remoteURL)) {
+                try {
+                    HttpCommandExecutor executor = new HttpCommandExecutor(Map.of(),
+                            gridTransport.clientConfig(remoteURL), gridTransport.getHttpClientFactory());
+                    return new RemoteWebDriver(executor, capabilities);
+                } catch (WebDriverException e) {
+                    lastFailure = e;
+                    log.warn("RemoteDriverBuilder:build - Session creation attempt {} failed - {}", attempt,
+                            e.getMessage());
+                }
+            } else {
+                lastFailure = new WebDriverException(
+                        String.format("The Selenium Grid at %s is not ready", remoteURL));
+                log.warn("RemoteDriverBuilder:build - Grid not ready on attempt {}", attempt);
+            }
+            if (attempt < gridTransport.getSessionAttempts()) {
+                sleep(backoff);
+                backoff = backoff.multipliedBy(2);
+            }
+        }
+        throw lastFailure;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting to retry session creation", e);
+        }
+    }
+
     /**
      * Loads the desired capabilities from the configuration file.
      *
      * @param capabilityBrowser the capabilities.
      */
     public RemoteDriverBuilder loadCapabilities(String capabilityBrowser) {
-        if (!capabilityStrategy.containsKey(capabilityBrowser)) {
+        return loadCapabilities(capabilityBrowser, BrowserProfile.HEADLESS);
+    }
+
+    /**
+     * Loads the desired capabilities of a browser with the given profile.
+     *
+     * @param capabilityBrowser the browser name
+     * @param profile           the {@link BrowserProfile}
+     */
+    public RemoteDriverBuilder loadCapabilities(String capabilityBrowser, BrowserProfile profile) {
+        if (!BROWSERS.contains(capabilityBrowser)) {
             throw new IllegalArgumentException(String.format("this Browser %s is not supported", capabilityBrowser));
         }
-        this.capabilities = capabilityStrategy.get(capabilityBrowser).get();
+        this.capabilities = capabilityTemplate(capabilityBrowser, profile);
         return this;
     }
 
@@ -103,4 +164,42 @@ public class RemoteDriverBuilder {
         this.remoteURL = remoteURL;
         return this;
     }
-}
\ No newline at end of file
+
+    /**
+     * Sets the shared transport used to reach the grid.
+     *
+     * @param gridTransport the {@link GridTransport}
+     */
+    public RemoteDriverBuilder setGridTransport(GridTransport gridTransport) {
+        this.gridTransport = gridTransport;
+        return this;
+    }
+
+    /**
+     * Gets the precomputed capability template of a browser.
+     *
+     * @param browser the browser name
+     * @return the immutable {@link Capabilities}
+     */
+    public static Capabilities capabilityTemplate(String browser) {
+        return capabilityTemplate(browser, BrowserProfile.HEADLESS);
+    }
+
+    /**
+     * Gets the capability template of a browser with the given profile, computing it on first use.
+     *
+     * @param browser the browser name
+     * @param profile the {@link BrowserProfile}
+     * @return the immutable {@link Capabilities}, {@code null} if the browser is not supported
+     */
+    public static Capabilities capabilityTemplate(String browser, BrowserProfile profile) {
+        if (!BROWSERS.contains(browser)) {
+            return null;
+        }
+        return CAPABILITY_TEMPLATES.computeIfAbsent(new TemplateKey(browser, profile),
+                RemoteDriverBuilder::newTemplate);
+    }
+
+    private record TemplateKey(String browser, BrowserProfile profile) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.follett.driver.download;
+
+import com.follett.driver.DriverManager;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * DownloadDirectories gives every local browser session its own download directory under
+ * {@link DriverManager#getDownloadDirector()}, so parallel scenarios never see or delete each other's files.
+ * <p/>
+ * Directories are created empty on the driver creation path. A recycled session's directory is emptied before the
+ * session goes back to the pool, so a pending clean-up can never delete a file the next scenario downloads; the
+ * directories of quit sessions and the leftovers of previous runs older than {@code downloads.stale.minutes} are
+ * deleted on a background thread.
+ */
+@Component
+@Slf4j
+public class DownloadDirectories {
+
+    private static final Set<String> PARTIAL_SUFFIXES = Set.of(".crdownload", ".part", ".partial", ".tmp");
+
+    private final Map<WebDriver, Path> directories = new ConcurrentHashMap<>();
+
+    private final ExecutorService cleaner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "downloads-cleaner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DownloadDirectories(@Value("${downloads.stale.minutes:60}") long staleMinutes) {
+        cleaner.execute(() -> purgeStale(Duration.ofMinutes(staleMinutes)));
+    }
+
+    /**
+     * Creates a new, empty download directory for a session that is about to be created.
+     *
+     * @return the absolute {@link Path} of the directory
+     * @throws IOException if the directory could not be created
+     */
+    public Path allocate() throws IOException {
+        return Files.createDirectories(DriverManager.getDownloadDirector().resolve(UUID.randomUUID().toString()))
+                .toAbsolutePath();
+    }
+
+    /**
+     * Binds a download directory to the session that downloads into it.
+     *
+     * @param driver    the {@link WebDriver}
+     * @param directory the directory returned by {@link #allocate()}
+     */
+    public void register(WebDriver driver, Path directory) {
+        directories.put(driver, directory);
+    }
+
+    /**
+     * Gets the download directory of a session.
+     *
+     * @param driver the {@link WebDriver}
+     * @return the directory, empty for remote sessions or sessions created outside of {@code DriverFactory}
+     */
+    public Optional<Path> getDownloadDirectory(WebDriver driver) {
+        return Optional.ofNullable(directories.get(driver));
+    }
+
+    /**
+     * Waits until a completed file matching the glob appears in the session's download directory.
+     *
+     * @param driver  the {@link WebDriver}
+     * @param glob    the file name glob, e.g. {@code *.pdf}
+     * @param timeout the maximum time to wait
+     * @return the {@link Path} of the downloaded file
+     * @throws IOException if the directory cannot be watched
+     */
+    public Path awaitDownload(WebDriver driver, String glob, Duration timeout) throws IOException {
+        Path directory = getDownloadDirectory(driver).orElseThrow(() -> new IllegalStateException(
+                "DownloadDirectories::awaitDownload - The session has no local download directory"));
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        Instant deadline = Instant.now().plus(timeout);
+        try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            Optional<Path> found = findCompleted(directory, matcher);
+            while (found.isEmpty()) {
+                long remaining = Duration.between(Instant.now(), deadline).toMillis();
+                if (remaining <= 0) {
+                    throw new TimeoutException(String.format(
+                            "DownloadDirectories::awaitDownload - No file matching %s was downloaded to %s within %s",
+                            glob, directory, timeout));
+                }
+                WatchKey key = watchService.poll(remaining, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+                found = findCompleted(directory, matcher);
+            }
+            return found.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("DownloadDirectories::awaitDownload - Interrupted", e);
+        }
+    }
+
+    /**
+     * Empties a session's download directory, keeping the directory for the next scenario. The directory is empty
+     * when this returns, so the session can be handed out again right away.
+     *
+     * @param driver the {@link WebDriver}
+     */
+    public void clear(WebDriver driver) {
+        getDownloadDirectory(driver).ifPresent(this::deleteContents);
+    }
+
+    /**
+     * Unbinds a session from its download directory and deletes the directory in the background.
+     *
+     * @param driver the {@link WebDriver}
+     */
+    public void release(WebDriver driver) {
+        Path directory = directories.remove(driver);
+        if (directory != null) {
+            cleaner.execute(() -> {
+                deleteContents(directory);
+                deleteQuietly(directory);
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdown();
+    }
+
+    private Optional<Path> findCompleted(Path directory, PathMatcher matcher) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> matcher.matches(file.getFileName()))
+                    .filter(file -> PARTIAL_SUFFIXES.stream().noneMatch(file.getFileName().toString()::endsWith))
+                    .findFirst();
+        }
+    }
+
+    private void purgeStale(Duration staleAfter) {
+        Path root = DriverManager.getDownloadDirector();
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        FileTime threshold = FileTime.from(Instant.now().minus(staleAfter));
+        try (Stream<Path> children = Files.list(root)) {
+            children.filter(child -> !directories.containsValue(child.toAbsolutePath()))
+                    .filter(child -> isOlderThan(child, threshold))
+                    .forEach(child -> {
+                        deleteContents(child);
+                        deleteQuietly(child);
+                    });
+        } catch (IOException e) {
+            log.error("Could not purge stale download directories: {}", e.getLocalizedMessage());
+        }
+    }
+
+    private boolean isOlderThan(Path path, FileTime threshold) {
+        try {
+            return Files.getLastModifiedTime(path).compareTo(threshold) < 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void deleteContents(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(directory)) {
+            walk.sorted(Comparator.reverseOrder())
+                    .filter(path -> !path.equals(directory))
+                    .forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.error("Could not delete download directory contents: {}", e.getLocalizedMessage());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.error("Could not delete file: {}", e.getLocalizedMessage());
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.follett.driver.factory;
+
+import com.follett.metrics.DriverMetrics;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * DriverBinaryResolver resolves the local driver binary (chromedriver, geckodriver, ...) of each browser once per JVM.
+ * <p/>
+ * Resolved paths are memoized in memory and in a properties file under {@code driver.binary.cache.dir}, so warm JVMs
+ * and CI re-runs skip {@link WebDriverManager} resolution until {@code driver.binary.cache.ttl.hours} expires. With
+ * {@code driver.binary.offline=true} the binaries are looked up in the pre-seeded cache directory only and
+ * {@link WebDriverManager} is never called: the executable file named exactly after the driver (with {@code .exe} on
+ * Windows) under the highest version directory is used.
+ */
+@Component
+@Slf4j
+public class DriverBinaryResolver {
+
+    private static final String CACHE_FILE = "resolved-drivers.properties";
+
+    private static final Pattern VERSION = Pattern.compile("\\d{1,9}(\\.\\d{1,9})*");
+
+    private static final Map<String, Binary> BINARIES = Map.of(
+            "chrome", new Binary("webdriver.chrome.driver", "chromedriver",
+                    () -> WebDriverManager.chromedriver()),
+            "firefox", new Binary("webdriver.gecko.driver", "geckodriver",
+                    () -> WebDriverManager.firefoxdriver()),
+            "edge", new Binary("webdriver.edge.driver", "msedgedriver",
+                    () -> WebDriverManager.edgedriver().arch64()),
+            "iexplorer", new Binary("webdriver.ie.driver", "IEDriverServer",
+                    () -> WebDriverManager.iedriver().arch32()));
+
+    private final Map<String, Path> resolved = new ConcurrentHashMap<>();
+
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    private final Map<String, Duration> resolutionTimes = new ConcurrentHashMap<>();
+
+    @Autowired
+    private DriverMetrics driverMetrics;
+
+    @Value("${driver.binary.cache.dir:${user.home}/.cache/selenium-drivers}")
+    private String cacheDir;
+
+    @Value("${driver.binary.cache.ttl.hours:24}")
+    private long cacheTtlHours;
+
+    @Value("${driver.binary.offline:false}")
+    private boolean offline;
+
+    /**
+     * Resolves the driver binary of the given browser and exposes it through the matching {@code webdriver.*.driver}
+     * system property. Only the first call per browser does any work: concurrent first calls for a browser wait for
+     * a single resolution, while other browsers resolve in parallel.
+     *
+     * @param browser the browser name
+     * @return the {@link Path} of the driver binary
+     */
+    public Path resolve(String browser) {
+        Binary binary = Optional.ofNullable(BINARIES.get(browser)).orElseThrow(() -> new IllegalArgumentException(
+                String.format("DriverBinaryResolver::resolve - No driver binary is known for: %s", browser)));
+        Path path = resolved.get(browser);
+        if (path == null) {
+            synchronized (locks.computeIfAbsent(browser, key -> new Object())) {
+                path = resolved.get(browser);
+                if (path == null) {
+                    path = resolveTimed(browser, binary);
+                    resolved.put(browser, path);
+                }
+            }
+        }
+        System.setProperty(binary.systemProperty(), path.toString());
+        return path;
+    }
+
+    /**
+     * Gets how long each browser's driver binary took to resolve in this JVM.
+     *
+     * @return the resolution time per browser
+     */
+    public Map<String, Duration> getResolutionTimes() {
+        return Collections.unmodifiableMap(resolutionTimes);
+    }
+
+    private Path resolveTimed(String browser, Binary binary) {
+        long start = System.nanoTime();
+        Path path = resolveUncached(browser, binary);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        resolutionTimes.put(browser, elapsed);
+        driverMetrics.record("driver.create", elapsed, "phase", "binary", "browser", browser);
+        log.info("DriverBinaryResolver:resolve - {} driver resolved to {} in {} ms", browser, path,
+                elapsed.toMillis());
+        return path;
+    }
+
+    private Path resolveUncached(String browser, Binary binary) {
+        if (offline) {
+            return findInCacheDirectory(binary).orElseThrow(() -> new IllegalStateException(String.format(
+                    "DriverBinaryResolver::resolve - Offline mode is on and no %s binary was found under %s",
+                    binary.fileName(), cacheDir)));
+        }
+        Optional<Path> cached = readDiskCache(browser);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        WebDriverManager manager = binary.manager().get().cachePath(cacheDir);
+        manager.setup();
+        Path path = Paths.get(manager.getDownloadedDriverPath());
+        writeDiskCache(browser, path);
+        return path;
+    }
+
+    private Optional<Path> findInCacheDirectory(Binary binary) {
+        Path root = Paths.get(cacheDir);
+        if (!Files.isDirectory(root)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> walk = Files.walk(root)) {
+            return walk.filter(path -> isBinaryName(path.getFileName().toString(), binary.fileName()))
+                    .filter(Files::isRegularFile)
+                    .filter(Files::isExecutable)
+                    .max(Comparator.<Path, List<Long>>comparing(path -> version(root.relativize(path)),
+                                    DriverBinaryResolver::compare)
+                            .thenComparing(Path::toString));
+        } catch (IOException e) {
+            log.error("DriverBinaryResolver:resolve - Could not scan the driver cache: " + e.getLocalizedMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isBinaryName(String name, String fileName) {
+        return name.equals(fileName) || name.equals(fileName + ".exe");
+    }
+
+    /**
+     * Gets the version of a cached binary from the last directory of its path that looks like a version, as in
+     * {@code chromedriver/linux64/118.0.5993.70/chromedriver}.
+     */
+    private static List<Long> version(Path path) {
+        List<Long> version = List.of();
+        for (int i = 0; i < path.getNameCount() - 1; i++) {
+            String name = path.getName(i).toString();
+            if (VERSION.matcher(name).matches()) {
+                version = Arrays.stream(name.split("\\.")).map(Long::valueOf).toList();
+            }
+        }
+        return version;
+    }
+
+    private static int compare(List<Long> left, List<Long> right) {
+        for (int i = 0; i < Math.max(left.size(), right.size()); i++) {
+            int result = Long.compare(i < left.size() ? left.get(i) : 0, i < right.size() ? right.get(i) : 0);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private synchronized Optional<Path> readDiskCache(String browser) {
+        Properties properties = loadDiskCache();
+        String path = properties.getProperty(browser + ".path");
+        String resolvedAt = properties.getProperty(browser + ".resolvedAt");
+        if (path == null || resolvedAt == null) {
+            return Optional.empty();
+        }
+        boolean expired;
+        try {
+            expired = Instant.ofEpochMilli(Long.parseLong(resolvedAt))
+                    .plus(Duration.ofHours(cacheTtlHours))
+                    .isBefore(Instant.now());
+        } catch (NumberFormatException e) {
+            expired = true;
+        }
+        Path binaryPath = Paths.get(path);
+        return expired || !Files.isExecutable(binaryPath) ? Optional.empty() : Optional.of(binaryPath);
+    }
+
+    private synchronized void writeDiskCache(String browser, Path path) {
+        Properties properties = loadDiskCache();
+        properties.setProperty(browser + ".path", path.toString());
+        properties.setProperty(browser + ".resolvedAt", String.valueOf(Instant.now().toEpochMilli()));
+        Path cacheFile = Paths.get(cacheDir, CACHE_FILE);
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Path tmp = Files.createTempFile(cacheFile.getParent(), CACHE_FILE, ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                properties.store(out, "Resolved WebDriver binaries");
+            }
+            Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("DriverBinaryResolver:resolve - Could not write the driver cache: " + e.getLocalizedMessage());
+        }
+    }
+
+    private Properties loadDiskCache() {
+        Properties properties = new Properties();
+        Path cacheFile = Paths.get(cacheDir, CACHE_FILE);
+        if (Files.exists(cacheFile)) {
+            try (InputStream in = Files.newInputStream(cacheFile)) {
+                properties.load(in);
+            } catch (IOException e) {
+                log.error("DriverBinaryResolver:resolve - Could not read the driver cache: " + e.getLocalizedMessage());
+            }
+        }
+        return properties;
+    }
+
+    private record Binary(String systemProperty, String fileName, Supplier<WebDriverManager> manager) {
+    }
+}
@@ -1,30 +1,35 @@
 package com.follett.driver.factory;
 
-import com.follett.driver.DriverManager;
 import com.follett.driver.RemoteDriverBuilder;
+import com.follett.driver.download.DownloadDirectories;
+import com.follett.driver.grid.GridConcurrencyGovernor;
+import com.follett.driver.grid.GridTransport;
+import com.follett.driver.profile.BrowserProfile;
+import com.follett.driver.profile.BrowserProfiles;
+import com.follett.driver.registry.SessionRegistry;
+import com.follett.metrics.DriverMetrics;
+import com.follett.report.browserlog.BrowserLogCapture;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.stereotype.Component;
-import io.github.bonigarcia.wdm.WebDriverManager;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileDeleteStrategy;
-import org.apache.commons.lang3.StringUtils;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.ie.InternetExplorerDriver;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import static java.nio.file.Files.createDirectories;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.Supplier;
-import java.util.stream.Stream;
+import java.util.function.Function;
 @Component
 @Slf4j
 public class DriverFactory {
@@ -35,21 +40,81 @@ public class DriverFactory {
     private static final String IEXPLORER = "iexplorer";
     private static final String EDGE = "edge";
 
+    private static final String PHASE_SESSION = "session";
+    private static final String PHASE_WINDOW = "window";
+    private static final String PHASE_TIMEOUTS = "timeouts";
+    private static final String PHASE_NAVIGATION = "navigation";
+
     @Value("${remoteUrl}")
     protected String remoteURL;
 
-    @Value("${implicit.time.out}")
-    private long implicitTimeout;
-
     @Value("${page.load.time.out}")
     private long pageLoadTimeout;
 
     @Value("${script.time.out}")
     private long scriptTimeout;
 
+    @Autowired
+    private DriverBinaryResolver driverBinaryResolver;
+
+    @Autowired
+    private DownloadDirectories downloadDirectories;
+
+    @Autowired
+    private DriverMetrics driverMetrics;
+
+    @Autowired
+    private GridTransport gridTransport;
+
+    @Autowired
+    private GridConcurrencyGovernor gridConcurrencyGovernor;
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    @Autowired
+    private BrowserProfiles browserProfiles;
+
+    @Autowired
+    private BrowserLogCapture browserLogCapture;
+
+    private final Map<String, Function<LocalSession, WebDriver>> webDriverSupplier = Map.of(
+            FIREFOX, session -> {
+                driverBinaryResolver.resolve(FIREFOX);
+                FirefoxOptions options = session.profile().applyTo(new FirefoxOptions(), session.userDataDir());
+                options.addPreference("browser.download.folderList", 2);
+                options.addPreference("browser.download.dir", session.downloadDir().toString());
+                options.addPreference("browser.download.useDownloadDir", true);
+                options.addPreference("pdfjs.disabled", true);
+                return new FirefoxDriver(options);
+            },
+            IEXPLORER, session -> {
+                driverBinaryResolver.resolve(IEXPLORER);
+                return new InternetExplorerDriver();
+            },
+            EDGE, session -> {
+                driverBinaryResolver.resolve(EDGE);
+                EdgeOptions options = session.profile().applyTo(new EdgeOptions(), session.userDataDir());
+                options.setExperimentalOption("prefs", downloadPreferences(session.downloadDir()));
+                return new EdgeDriver(options);
+            },
+            CHROME, session -> {
+                driverBinaryResolver.resolve(CHROME);
+                ChromeOptions options = session.profile().applyTo(new ChromeOptions(), session.userDataDir())
+                        .addArguments("--remote-allow-origins=*");
+                options.setExperimentalOption("prefs", downloadPreferences(session.downloadDir()));
+                return new ChromeDriver(options);
+            });
+
+    @PostConstruct
+    public void registerReaper() {
+        sessionRegistry.setReaper(this::destroy);
+    }
+
 
     /**
-     * Returns a new instance of the particular web webDriver based on configuration.
+     * Returns a new instance of the particular web webDriver based on configuration, with the default
+     * {@link BrowserProfile}.
      *
      * @param url     the base URL
      * @param browser the browser name
@@ -58,51 +123,159 @@ public class DriverFactory {
      * @throws IOException if the provider file does not exist or if it is invalid.
      */
     public WebDriver newInstance(String url, String browser, boolean remote) throws Exception {
+        return newInstance(url, browser, browserProfiles.getDefault(remote), remote);
+    }
+
+    /**
+     * Returns a new instance of the particular web webDriver based on configuration.
+     *
+     * @param url     the base URL
+     * @param browser the browser name
+     * @param profile the {@link BrowserProfile}
+     * @param remote  to execute remotely or locally
+     * @return the {@link WebDriver}
+     * @throws IOException if the provider file does not exist or if it is invalid.
+     */
+    public WebDriver newInstance(String url, String browser, BrowserProfile profile, boolean remote)
+            throws Exception {
         validate(browser);
 
-        WebDriver driver;
+        long start = System.nanoTime();
+        WebDriver driver = newSession(browser, profile, remote);
 
-        if (remote) {
-            driver = newRemoteDriver(browser);
-        } else {
-            driver = newLocalDriver(browser);
-            driver.manage().window().maximize();
+        try {
+            if (!remote && !profile.headless() && profile.viewport() == null) {
+                timer(PHASE_WINDOW, browser).record(() -> driver.manage().window().maximize());
+            }
+
+            timer(PHASE_TIMEOUTS, browser).record(() -> {
+                driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+                driver.manage().timeouts().pageLoadTimeout(Duration.of(pageLoadTimeout, ChronoUnit.SECONDS));
+                driver.manage().timeouts().scriptTimeout(Duration.of(scriptTimeout, ChronoUnit.SECONDS));
+            });
+
+            timer(PHASE_NAVIGATION, browser).record(() -> {
+                try {
+                    driver.get(url);
+                } catch (Exception e) {
+                    log.error("Error when tried to start a new instance", e);
+                    driverMetrics.increment("driver.create.retry", "phase", PHASE_NAVIGATION, "browser", browser);
+                    driver.navigate().refresh();
+                }
+            });
+        } catch (RuntimeException e) {
+            driverMetrics.increment("driver.create.failure", "phase", "setup", "browser", browser);
+            destroy(driver);
+            throw e;
         }
 
-        driver.manage().timeouts().implicitlyWait(Duration.of(implicitTimeout, ChronoUnit.SECONDS));
-        driver.manage().timeouts().pageLoadTimeout(Duration.of(pageLoadTimeout, ChronoUnit.SECONDS));
-        driver.manage().timeouts().scriptTimeout(Duration.of(scriptTimeout, ChronoUnit.SECONDS));
+        driverMetrics.record("driver.create", Duration.ofNanos(System.nanoTime() - start),
+                "phase", "total", "browser", browser);
+        return driver;
+    }
+
+    /**
+     * Creates the browser session, timing it as the {@code session} phase. The session first waits for a live session
+     * permit in the {@link SessionRegistry}, remote sessions then for grid capacity in the
+     * {@link GridConcurrencyGovernor}.
+     *
+     * @param browser the browser name
+     * @param profile the {@link BrowserProfile}
+     * @param remote  to execute remotely or locally
+     * @return the {@link WebDriver}
+     * @throws Exception if the session could not be created.
+     */
+    private WebDriver newSession(String browser, BrowserProfile profile, boolean remote) throws Exception {
+        sessionRegistry.acquire(browser);
+        try {
+            if (remote) {
+                gridConcurrencyGovernor.acquire(browser);
+            }
+        } catch (Exception e) {
+            sessionRegistry.release();
+            throw e;
+        }
+        try {
+            WebDriver driver = timer(PHASE_SESSION, browser).recordCallable(() ->
+                    remote ? newRemoteDriver(browser, profile) : newLocalDriver(browser, profile));
+            if (remote) {
+                gridConcurrencyGovernor.register(driver, browser);
+            }
+            sessionRegistry.register(driver, browser, remote);
+            return driver;
+        } catch (Exception e) {
+            sessionRegistry.release();
+            if (remote) {
+                gridConcurrencyGovernor.release(browser);
+            }
+            driverMetrics.increment("driver.create.failure", "phase", PHASE_SESSION, "browser", browser);
+            throw e;
+        }
+    }
 
+    /**
+     * Quits the given webDriver, logging instead of failing when the session is already gone. A driver process that
+     * outlives the quit is killed by the {@link SessionRegistry}.
+     *
+     * @param driver the {@link WebDriver}
+     */
+    public void destroy(WebDriver driver) {
+        downloadDirectories.release(driver);
+        gridConcurrencyGovernor.release(driver);
+        browserLogCapture.release(driver);
+        Optional<SessionRegistry.Session> session = sessionRegistry.unregister(driver);
+        String browser = session.map(SessionRegistry.Session::browser).orElse("unknown");
+        long start = System.nanoTime();
         try {
-            driver.get(url);
+            driver.quit();
         } catch (Exception e) {
-            log.error("Error when tried to start a new instance", e);
-            driver.navigate().refresh();
+            driverMetrics.increment("driver.teardown.failure", "op", "quit", "browser", browser);
+            log.error("DriverFactory:destroy - Unable to close all browsers instances - " + e.getMessage(), e);
+        } finally {
+            session.ifPresent(sessionRegistry::kill);
+            browserProfiles.release(driver);
+            driverMetrics.record("driver.teardown", Duration.ofNanos(System.nanoTime() - start),
+                    "op", "quit", "browser", browser);
         }
-        return driver;
     }
 
     /**
      * Returns a new local webDriver based on configuration.
      *
      * @param browser the browser name
+     * @param profile the {@link BrowserProfile}
      * @return @return the {@link WebDriver}
+     * @throws IOException if the download directory could not be created.
      */
-    private WebDriver newLocalDriver(String browser) {
-        createDownloadsDirectory();
-
-        return getWebDriverFromSupplier(browser);
+    private WebDriver newLocalDriver(String browser, BrowserProfile profile) throws IOException {
+        Path downloadDir = downloadDirectories.allocate();
+        Path userDataDir = browserProfiles.prepareUserData(profile, CHROME.equals(browser) || EDGE.equals(browser));
+        WebDriver driver;
+        try {
+            driver = getWebDriverFromSupplier(browser, new LocalSession(profile, downloadDir, userDataDir));
+        } catch (RuntimeException e) {
+            browserProfiles.discard(userDataDir);
+            throw e;
+        }
+        downloadDirectories.register(driver, downloadDir);
+        browserProfiles.register(driver, userDataDir);
+        return driver;
     }
 
     /**
      * Returns a new remote webDriver based on configuration.
      *
      * @param browser the browser name
+     * @param profile the {@link BrowserProfile}
      * @return the {@link WebDriver}
      * @throws IOException if the provider file does not exist or if it is invalid.
      */
-    private WebDriver newRemoteDriver(String browser) throws IOException {
-        return new RemoteDriverBuilder().setRemoteURL(remoteURL).loadCapabilities(browser).build();
+    private WebDriver newRemoteDriver(String browser, BrowserProfile profile) throws IOException {
+        return new RemoteDriverBuilder()
+                .setRemoteURL(remoteURL)
+                .loadCapabilities(browser, profile)
+                .setGridTransport(gridTransport)
+                .build();
     }
 
     /**
@@ -131,30 +304,15 @@ public class DriverFactory {
         }
     }
 
-    private String createDownloadsDirectory() {
-        Path downloadPath = DriverManager.getDownloadDirector();
-        Stream<Path> walk = null;
-        try {
-            if (downloadPath.toFile().exists()) {
-                walk = Files.walk(downloadPath);
-                walk.map(Path::toFile)
-                        .filter(File::isFile)
-                        .forEach(fileToDelete -> {
-                            try {
-                                FileDeleteStrategy.FORCE.delete(fileToDelete);
-                            } catch (IOException e) {
-                                log.error("Could not delete file: {}", e.getLocalizedMessage());
-                            }
-                        });
-                Files.deleteIfExists(downloadPath);
-            }
-            return createDirectories(downloadPath).toAbsolutePath().toString();
-        } catch (IOException e) {
-            log.error("Could not delete & re-create downloads directory: " + e.getLocalizedMessage());
-            return StringUtils.EMPTY;
-        } finally {
-            if (walk != null) walk.close();
-        }
+    private Timer timer(String phase, String browser) {
+        return driverMetrics.timer("driver.create", "phase", phase, "browser", browser);
+    }
+
+    private static Map<String, Object> downloadPreferences(Path downloadDir) {
+        return Map.of(
+                "download.default_directory", downloadDir.toString(),
+                "download.prompt_for_download", false,
+                "plugins.always_open_pdf_externally", true);
     }
 
   /*
@@ -173,35 +331,34 @@ public class DriverFactory {
   }*/
 
 
-    private WebDriver getWebDriverFromSupplier(String browser) {
-        Optional<Supplier<WebDriver>> supplierOptional = Optional.ofNullable(webDriverSupplier().get(browser));
+    /**
+     * Launches the local browser session. Subclasses may override it to supply an in-process stand-in, as the
+     * benchmarks do, while keeping the rest of the lifecycle (timeouts, navigation, teardown, metrics) unchanged.
+     *
+     * @param browser the browser name
+     * @param session the {@link LocalSession} settings
+     * @return the {@link WebDriver}
+     */
+    protected WebDriver getWebDriverFromSupplier(String browser, LocalSession session) {
+        Optional<Function<LocalSession, WebDriver>> supplierOptional =
+                Optional.ofNullable(webDriverSupplier.get(browser));
         return supplierOptional.orElseThrow(() -> new IllegalArgumentException(
                 String.format(
                         "%s No local or remote webDriver builders are created for: %s",
                         DRIVER_FACTORY_VALIDATE,
                         browser
                 )
-        )).get();
+        )).apply(session);
     }
 
-    private Map<String, Supplier<WebDriver>> webDriverSupplier() {
-        return Map.of(
-                FIREFOX, () -> {
-                    WebDriverManager.firefoxdriver().setup();
-                    return new FirefoxDriver();
-                },
-                IEXPLORER, () -> {
-                    WebDriverManager.iedriver().arch32().setup();
-                    return new InternetExplorerDriver();
-                },
-                EDGE, () -> {
-                    WebDriverManager.edgedriver().arch64().setup();
-                    return new EdgeDriver();
-                },
-                CHROME, () -> {
-                    WebDriverManager.chromedriver().setup();
-                    return new ChromeDriver(new ChromeOptions().addArguments("--remote-allow-origins=*"));
-                });
+    /**
+     * The settings a local browser session is launched with.
+     *
+     * @param profile     the {@link BrowserProfile}
+     * @param downloadDir the download directory of the session
+     * @param userDataDir the user-data directory to start from, {@code null} for a fresh one
+     */
+    public record LocalSession(BrowserProfile profile, Path downloadDir, Path userDataDir) {
     }
 
 }
\ No newline at end of file
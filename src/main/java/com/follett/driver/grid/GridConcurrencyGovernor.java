@@ -0,0 +1,198 @@
+package com.follett.driver.grid;
+
+import com.follett.metrics.DriverMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * GridConcurrencyGovernor keeps the number of remote sessions requested per browser in line with what the Selenium
+ * Grid can actually serve.
+ * <p/>
+ * A background task polls the grid's {@code /status} every {@code grid.governor.poll.seconds} and sets each browser's
+ * limit to the sessions this JVM already holds plus the grid's free slots. Session creation takes a permit before
+ * talking to the grid and keeps it until the session is destroyed, so scenarios queue here instead of timing out in
+ * the grid's new-session queue. Time spent waiting is recorded as the {@code grid.queue.wait} timer. When the grid
+ * does not report slots (Grid 3) sessions are not limited. When the status cannot be read, every browser keeps its
+ * last known limit, and a browser without one is not limited until the grid answers again.
+ */
+@Component
+@Slf4j
+public class GridConcurrencyGovernor {
+
+    private static final int UNLIMITED = Integer.MAX_VALUE / 2;
+
+    private final Map<String, AdjustableSemaphore> limits = new ConcurrentHashMap<>();
+
+    private final Map<WebDriver, String> holders = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "grid-governor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    private GridTransport gridTransport;
+
+    @Autowired
+    private DriverMetrics driverMetrics;
+
+    @Value("${remoteUrl:}")
+    private String remoteURL;
+
+    @Value("${grid.governor.enabled:true}")
+    private boolean enabled;
+
+    @Value("${grid.governor.poll.seconds:5}")
+    private long pollSeconds;
+
+    @Value("${grid.governor.max.wait.seconds:600}")
+    private long maxWaitSeconds;
+
+    /**
+     * Waits until the grid has capacity for one more session of the given browser.
+     *
+     * @param browser the browser name
+     * @throws InterruptedException if interrupted while waiting
+     * @throws WebDriverException if no capacity frees up within {@code grid.governor.max.wait.seconds}
+     */
+    public void acquire(String browser) throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        startPolling();
+        AdjustableSemaphore semaphore = limit(browser);
+        long start = System.nanoTime();
+        boolean acquired = semaphore.tryAcquire(maxWaitSeconds, TimeUnit.SECONDS);
+        if (!acquired) {
+            driverMetrics.increment("grid.queue.timeout", "browser", browser);
+            throw new WebDriverException(String.format(
+                    "The Selenium Grid had no free %s slot within %d seconds", browser, maxWaitSeconds));
+        }
+        driverMetrics.record("grid.queue.wait", Duration.ofNanos(System.nanoTime() - start), "browser", browser);
+    }
+
+    /**
+     * Binds an acquired permit to the session created with it.
+     *
+     * @param driver  the {@link WebDriver}
+     * @param browser the browser name
+     */
+    public void register(WebDriver driver, String browser) {
+        if (enabled) {
+            holders.put(driver, browser);
+        }
+    }
+
+    /**
+     * Gives back a permit acquired for a session that could not be created.
+     *
+     * @param browser the browser name
+     */
+    public void release(String browser) {
+        if (enabled) {
+            limit(browser).release();
+        }
+    }
+
+    /**
+     * Gives back the permit held by a destroyed session. Sessions created without a permit are ignored.
+     *
+     * @param driver the {@link WebDriver}
+     */
+    public void release(WebDriver driver) {
+        String browser = holders.remove(driver);
+        if (browser != null) {
+            limit(browser).release();
+        }
+    }
+
+    /**
+     * Re-reads the grid status and adjusts every browser's limit.
+     */
+    public void poll() {
+        GridStatus status;
+        try {
+            status = gridTransport.getStatusClient().fetch(remoteURL);
+        } catch (UncheckedIOException e) {
+            log.warn("GridConcurrencyGovernor:poll - Could not read the grid status - " + e.getMessage());
+            limits.values().forEach(semaphore -> semaphore.setLimitIfUnknown(UNLIMITED));
+            return;
+        }
+        limits.forEach((browser, semaphore) -> {
+            if (status.totalSlots().isEmpty()) {
+                semaphore.setLimit(UNLIMITED);
+                return;
+            }
+            int held = (int) holders.values().stream().filter(browser::equals).count();
+            semaphore.setLimit(held + status.freeSlots(browser));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    private void startPolling() {
+        if (started.compareAndSet(false, true)) {
+            poller.scheduleWithFixedDelay(this::poll, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private AdjustableSemaphore limit(String browser) {
+        AdjustableSemaphore semaphore = limits.get(browser);
+        if (semaphore == null) {
+            semaphore = limits.computeIfAbsent(browser, key -> new AdjustableSemaphore());
+            poll();
+        }
+        return semaphore;
+    }
+
+    /**
+     * A semaphore whose total number of permits can be changed while permits are held.
+     */
+    private static final class AdjustableSemaphore extends Semaphore {
+
+        private int limit;
+
+        private boolean known;
+
+        private AdjustableSemaphore() {
+            super(0, true);
+        }
+
+        private synchronized void setLimitIfUnknown(int newLimit) {
+            if (!known) {
+                setLimit(newLimit);
+            }
+        }
+
+        private synchronized void setLimit(int newLimit) {
+            int delta = newLimit - limit;
+            limit = newLimit;
+            known = true;
+            if (delta > 0) {
+                release(delta);
+            } else if (delta < 0) {
+                reducePermits(-delta);
+            }
+        }
+    }
+}
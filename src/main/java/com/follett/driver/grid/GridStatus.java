@@ -0,0 +1,33 @@
+package com.follett.driver.grid;
+
+import java.util.Map;
+
+/**
+ * Snapshot of a Selenium Grid {@code /status} response.
+ *
+ * @param ready      whether the grid accepts new sessions
+ * @param freeSlots  the number of free slots per browser name
+ * @param totalSlots the number of slots per browser name
+ */
+public record GridStatus(boolean ready, Map<String, Integer> freeSlots, Map<String, Integer> totalSlots) {
+
+    /**
+     * Gets the free slots for a browser.
+     *
+     * @param browser the browser name
+     * @return the number of free slots, 0 when the grid has no slot for that browser
+     */
+    public int freeSlots(String browser) {
+        return freeSlots.getOrDefault(browser, 0);
+    }
+
+    /**
+     * Gets the total slots for a browser.
+     *
+     * @param browser the browser name
+     * @return the number of slots, 0 when the grid has no slot for that browser
+     */
+    public int totalSlots(String browser) {
+        return totalSlots.getOrDefault(browser, 0);
+    }
+}
@@ -0,0 +1,100 @@
+package com.follett.driver.grid;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * GridStatusClient reads the {@code /status} endpoint of a Selenium Grid and counts its free slots per browser.
+ * <p/>
+ * Grid 3 only reports {@code ready}; in that case the slot maps are empty.
+ */
+public class GridStatusClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient httpClient;
+
+    private final Duration timeout;
+
+    public GridStatusClient(Duration timeout) {
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    /**
+     * Fetches the status of the grid.
+     *
+     * @param remoteURL the grid URL, with or without the {@code /wd/hub} path
+     * @return the {@link GridStatus}
+     * @throws UncheckedIOException if the grid cannot be reached or answers with an error
+     */
+    public GridStatus fetch(String remoteURL) {
+        HttpRequest request = HttpRequest.newBuilder(statusUri(remoteURL)).timeout(timeout).GET().build();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new IOException("Grid status returned HTTP " + response.statusCode());
+                }
+                return parse(MAPPER.readTree(body));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new IOException("Interrupted while reading the grid status", e));
+        }
+    }
+
+    /**
+     * Checks whether the grid accepts new sessions, treating an unreachable grid as not ready.
+     *
+     * @param remoteURL the grid URL
+     * @return {@code true} if the grid is ready
+     */
+    public boolean isReady(String remoteURL) {
+        try {
+            return fetch(remoteURL).ready();
+        } catch (UncheckedIOException e) {
+            return false;
+        }
+    }
+
+    private GridStatus parse(JsonNode root) {
+        JsonNode value = root.path("value");
+        Map<String, Integer> free = new HashMap<>();
+        Map<String, Integer> total = new HashMap<>();
+        for (JsonNode node : value.path("nodes")) {
+            if (!"UP".equalsIgnoreCase(node.path("availability").asText("UP"))) {
+                continue;
+            }
+            for (JsonNode slot : node.path("slots")) {
+                String browser = slot.path("stereotype").path("browserName").asText();
+                if (browser.isEmpty()) {
+                    continue;
+                }
+                browser = "MicrosoftEdge".equals(browser) ? "edge" : browser;
+                browser = "internet explorer".equals(browser) ? "iexplorer" : browser;
+                total.merge(browser, 1, Integer::sum);
+                if (slot.path("session").isNull() || slot.path("session").isMissingNode()) {
+                    free.merge(browser, 1, Integer::sum);
+                }
+            }
+        }
+        return new GridStatus(value.path("ready").asBoolean(false), Map.copyOf(free), Map.copyOf(total));
+    }
+
+    private static URI statusUri(String remoteURL) {
+        return URI.create(remoteURL.replaceAll("/+$", "") + "/status");
+    }
+}
@@ -0,0 +1,79 @@
+package com.follett.driver.grid;
+
+import jakarta.annotation.PreDestroy;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+
+/**
+ * GridTransport holds the HTTP plumbing shared by every remote session: the pooled Selenium HTTP client factory, the
+ * grid status client and the session-creation retry settings.
+ */
+@Component
+public class GridTransport {
+
+    private final PooledHttpClientFactory httpClientFactory;
+
+    private final GridStatusClient statusClient;
+
+    private final Duration connectTimeout;
+
+    private final Duration readTimeout;
+
+    private final int sessionAttempts;
+
+    private final Duration initialBackoff;
+
+    public GridTransport(@Value("${grid.http.connect.timeout:10}") long connectTimeout,
+                         @Value("${grid.http.read.timeout:180}") long readTimeout,
+                         @Value("${grid.http.keep.alive:120}") long keepAlive,
+                         @Value("${grid.session.attempts:3}") int sessionAttempts,
+                         @Value("${grid.session.backoff.ms:1000}") long initialBackoff) {
+        this.connectTimeout = Duration.ofSeconds(connectTimeout);
+        this.readTimeout = Duration.ofSeconds(readTimeout);
+        this.sessionAttempts = Math.max(1, sessionAttempts);
+        this.initialBackoff = Duration.ofMillis(initialBackoff);
+        this.httpClientFactory = new PooledHttpClientFactory(HttpClient.Factory.createDefault(),
+                Duration.ofSeconds(keepAlive));
+        this.statusClient = new GridStatusClient(this.connectTimeout);
+    }
+
+    /**
+     * Builds the client configuration of a grid.
+     *
+     * @param remoteURL the grid URL
+     * @return the {@link ClientConfig}
+     * @throws MalformedURLException if the URL is invalid
+     */
+    public ClientConfig clientConfig(String remoteURL) throws MalformedURLException {
+        return ClientConfig.defaultConfig()
+                .baseUrl(new URL(remoteURL))
+                .connectionTimeout(connectTimeout)
+                .readTimeout(readTimeout);
+    }
+
+    public HttpClient.Factory getHttpClientFactory() {
+        return httpClientFactory;
+    }
+
+    public GridStatusClient getStatusClient() {
+        return statusClient;
+    }
+
+    public int getSessionAttempts() {
+        return sessionAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClientFactory.close();
+    }
+}
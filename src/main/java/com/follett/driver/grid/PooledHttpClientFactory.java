@@ -0,0 +1,121 @@
+package com.follett.driver.grid;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PooledHttpClientFactory shares one Selenium {@link HttpClient}, and therefore one connection pool, per grid URL
+ * between every remote session instead of opening a new client for each {@code RemoteWebDriver}.
+ * <p/>
+ * Sessions get a view of the shared client whose {@link HttpClient#close()} only detaches the view; the underlying
+ * client is closed once no view is attached and it has been idle for longer than the keep-alive, or when the factory
+ * itself is closed.
+ */
+@Slf4j
+public class PooledHttpClientFactory implements HttpClient.Factory, AutoCloseable {
+
+    private final HttpClient.Factory delegate;
+
+    private final Duration keepAlive;
+
+    private final Map<String, SharedClient> clients = new ConcurrentHashMap<>();
+
+    public PooledHttpClientFactory(HttpClient.Factory delegate, Duration keepAlive) {
+        this.delegate = delegate;
+        this.keepAlive = keepAlive;
+    }
+
+    @Override
+    public HttpClient createClient(ClientConfig config) {
+        String key = config.baseUri() + "|" + config.connectionTimeout() + "|" + config.readTimeout();
+        SharedClient shared = clients.compute(key, (ignored, existing) -> {
+            SharedClient client = existing == null ? new SharedClient(delegate.createClient(config)) : existing;
+            client.views.incrementAndGet();
+            client.touch();
+            return client;
+        });
+        return new SharedClientView(shared);
+    }
+
+    @Override
+    public void cleanupIdleClients() {
+        Instant threshold = Instant.now().minus(keepAlive);
+        clients.keySet().forEach(key -> clients.computeIfPresent(key, (ignored, shared) -> {
+            if (shared.views.get() == 0 && shared.lastUsed.isBefore(threshold)) {
+                shared.client.close();
+                return null;
+            }
+            return shared;
+        }));
+        delegate.cleanupIdleClients();
+    }
+
+    @Override
+    public void close() {
+        clients.values().forEach(shared -> {
+            try {
+                shared.client.close();
+            } catch (Exception e) {
+                log.error("PooledHttpClientFactory:close - Unable to close HTTP client - " + e.getMessage());
+            }
+        });
+        clients.clear();
+    }
+
+    private static final class SharedClient {
+
+        private final HttpClient client;
+
+        private final AtomicInteger views = new AtomicInteger();
+
+        private volatile Instant lastUsed = Instant.now();
+
+        private SharedClient(HttpClient client) {
+            this.client = client;
+        }
+
+        private void touch() {
+            lastUsed = Instant.now();
+        }
+    }
+
+    private static final class SharedClientView implements HttpClient {
+
+        private final SharedClient shared;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private SharedClientView(SharedClient shared) {
+            this.shared = shared;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            shared.touch();
+            return shared.client.execute(request);
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            shared.touch();
+            return shared.client.openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                shared.views.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.follett.driver.pool;
+
+import com.follett.driver.download.DownloadDirectories;
+import com.follett.driver.factory.DriverFactory;
+import com.follett.driver.profile.BrowserProfile;
+import com.follett.driver.registry.SessionRegistry;
+import com.follett.metrics.DriverMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DriverPool keeps a bounded set of live web driver sessions per browser so scenarios can reuse them instead of
+ * paying for a new browser launch every time.
+ * <p/>
+ * Sessions are pooled per browser and {@link BrowserProfile}, so a session is only reused by scenarios asking for the
+ * same profile. A session is leased with {@link #lease(String, String, BrowserProfile, boolean)} and handed back with
+ * {@link #release(String, String, WebDriver)}. On release the session is reset (extra windows closed, cookies and
+ * storage cleared, base url loaded) and parked as idle. On lease an idle session is health checked first and is
+ * evicted and replaced when it no longer responds. Idle sessions older than the idle timeout are quit by a background
+ * sweeper, and sessions past the {@link SessionRegistry} maximum age are retired when they are released.
+ */
+@Component
+@Slf4j
+public class DriverPool {
+
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+
+    private final Map<String, BrowserPool> pools = new ConcurrentHashMap<>();
+
+    private final Map<WebDriver, String> leased = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "driver-pool-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    private DriverFactory driverFactory;
+
+    @Autowired
+    private DownloadDirectories downloadDirectories;
+
+    @Autowired
+    private DriverMetrics driverMetrics;
+
+    @Autowired
+    private DriverPrefetcher driverPrefetcher;
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    @Value("${driver.pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${driver.pool.max.size:4}")
+    private int maxSize;
+
+    @Value("${driver.pool.idle.timeout:300}")
+    private long idleTimeout;
+
+    public DriverPool() {
+        sweeper.scheduleWithFixedDelay(this::evictIdle, 30, 30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Leases a live session for the given browser and profile, reusing an idle one or taking a prefetched one when
+     * available.
+     * <p/>
+     * Blocks while the browser already has {@code driver.pool.max.size} sessions of the profile leased.
+     *
+     * @param url     the base URL
+     * @param browser the browser name
+     * @param profile the {@link BrowserProfile}
+     * @param remote  to execute remotely or locally
+     * @return the {@link WebDriver}
+     * @throws Exception if a new session could not be created.
+     */
+    public WebDriver lease(String url, String browser, BrowserProfile profile, boolean remote) throws Exception {
+        if (!enabled) {
+            Optional<WebDriver> prefetched = driverPrefetcher.take(url, browser, profile, remote, Integer.MAX_VALUE);
+            if (prefetched.isPresent()) {
+                try {
+                    if (sessionRegistry.claim(prefetched.get())) {
+                        return prefetched.get();
+                    }
+                } catch (Exception e) {
+                    driverFactory.destroy(prefetched.get());
+                    throw e;
+                }
+            }
+            return driverFactory.newInstance(url, browser, profile, remote);
+        }
+        String key = browser + "/" + profile.name();
+        BrowserPool pool = pool(key);
+        pool.permits.acquire();
+        try {
+            WebDriver driver = pollHealthy(pool);
+            if (driver == null) {
+                driver = driverPrefetcher.take(url, browser, profile, remote, room(pool)).orElse(null);
+            }
+            if (driver != null && claim(pool, driver)) {
+                driverMetrics.increment("driver.pool.reused", "browser", browser);
+            } else {
+                driver = driverFactory.newInstance(url, browser, profile, remote);
+            }
+            leased.put(driver, key);
+            return driver;
+        } catch (Exception e) {
+            pool.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a leased session to the pool. The session is reset before it is parked; a session that cannot be reset
+     * is quit instead.
+     *
+     * @param url     the base URL
+     * @param browser the browser name
+     * @param driver  the {@link WebDriver} previously leased
+     */
+    public void release(String url, String browser, WebDriver driver) {
+        if (!enabled) {
+            driverFactory.destroy(driver);
+            return;
+        }
+        String key = leased.remove(driver);
+        if (key == null) {
+            log.warn("DriverPool:release - Session was not leased from the pool, it will be quit");
+            driverFactory.destroy(driver);
+            return;
+        }
+        BrowserPool pool = pool(key);
+        if (sessionRegistry.isExpired(driver)) {
+            driverMetrics.increment("driver.pool.retired", "browser", browser);
+            driverFactory.destroy(driver);
+            pool.permits.release();
+            return;
+        }
+        try {
+            driverMetrics.timer("driver.reset", "op", "release", "browser", browser).record(() -> reset(driver, url));
+            downloadDirectories.clear(driver);
+            sessionRegistry.park(driver);
+            pool.idle.offerFirst(new PooledSession(driver, Instant.now()));
+        } catch (Exception e) {
+            driverMetrics.increment("driver.reset.failure", "op", "release", "browser", browser);
+            log.warn("DriverPool:release - Unable to reset session, it will be quit - " + e.getMessage());
+            driverFactory.destroy(driver);
+        } finally {
+            pool.permits.release();
+        }
+    }
+
+    /**
+     * Resets a session to a clean state: closes every window but the first one, clears cookies, local and session
+     * storage and loads the base url.
+     *
+     * @param driver the {@link WebDriver}
+     * @param url    the base url
+     */
+    public void reset(WebDriver driver, String url) {
+        Set<String> windowHandles = driver.getWindowHandles();
+        if (windowHandles.size() > 1) {
+            Iterator<String> iterator = windowHandles.iterator();
+            String mainWindow = iterator.next();
+            while (iterator.hasNext()) {
+                driver.switchTo().window(iterator.next());
+                driver.close();
+            }
+            driver.switchTo().window(mainWindow);
+        }
+        driver.switchTo().defaultContent();
+        driver.manage().deleteAllCookies();
+        if (driver instanceof JavascriptExecutor javascriptExecutor) {
+            javascriptExecutor.executeScript(CLEAR_STORAGE_SCRIPT);
+        }
+        driver.get(url);
+    }
+
+    /**
+     * Quits every idle session. Leased sessions are quit by their owners when they are released.
+     */
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+        pools.values().forEach(pool -> {
+            PooledSession session;
+            while ((session = pool.idle.pollFirst()) != null) {
+                driverFactory.destroy(session.driver());
+            }
+        });
+    }
+
+    /**
+     * Claims an idle or prefetched session for the current thread. A session that could not be claimed for lack of a
+     * live session permit is parked back in the pool; one the registry is reaping is left to it.
+     */
+    private boolean claim(BrowserPool pool, WebDriver driver) throws InterruptedException {
+        try {
+            if (sessionRegistry.claim(driver)) {
+                return true;
+            }
+            log.info("DriverPool:lease - Session is being reaped, launching a new one");
+            return false;
+        } catch (InterruptedException | RuntimeException e) {
+            sessionRegistry.park(driver);
+            pool.idle.offerFirst(new PooledSession(driver, Instant.now()));
+            throw e;
+        }
+    }
+
+    private WebDriver pollHealthy(BrowserPool pool) {
+        PooledSession session;
+        while ((session = pool.idle.pollFirst()) != null) {
+            if (isExpired(session) || !isHealthy(session.driver())) {
+                log.info("DriverPool:lease - Evicting stale session");
+                driverMetrics.increment("driver.pool.evicted");
+                driverFactory.destroy(session.driver());
+                continue;
+            }
+            return session.driver();
+        }
+        return null;
+    }
+
+    private void evictIdle() {
+        driverPrefetcher.evictIdle(Duration.ofSeconds(idleTimeout));
+        pools.values().forEach(pool -> pool.idle.removeIf(session -> {
+            if (isExpired(session)) {
+                driverFactory.destroy(session.driver());
+                return true;
+            }
+            return false;
+        }));
+    }
+
+    /**
+     * Counts the sessions of a pool that may still be created without exceeding {@code driver.pool.max.size}: the
+     * permits left after the current lease took its own, minus the idle sessions. A pool with idle sessions has no
+     * room for prefetching.
+     */
+    private int room(BrowserPool pool) {
+        return pool.idle.isEmpty() ? pool.permits.availablePermits() + 1 : 0;
+    }
+
+    private boolean isExpired(PooledSession session) {
+        return session.idleSince().plus(Duration.ofSeconds(idleTimeout)).isBefore(Instant.now());
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private BrowserPool pool(String key) {
+        return pools.computeIfAbsent(key, ignored -> new BrowserPool(new Semaphore(maxSize, true),
+                new ConcurrentLinkedDeque<>()));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    private record BrowserPool(Semaphore permits, Deque<PooledSession> idle) {
+    }
+
+    private record PooledSession(WebDriver driver, Instant idleSince) {
+    }
+}
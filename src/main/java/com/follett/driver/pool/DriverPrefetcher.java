@@ -0,0 +1,228 @@
+package com.follett.driver.pool;
+
+import com.follett.driver.factory.DriverFactory;
+import com.follett.driver.profile.BrowserProfile;
+import com.follett.driver.registry.SessionRegistry;
+import com.follett.metrics.DriverMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DriverPrefetcher speculatively builds the next sessions on a background executor while the current scenario is
+ * still running, so the next lease usually finds a ready driver instead of waiting for a browser launch.
+ * <p/>
+ * Prefetching is opt-in: {@code driver.prefetch.depth} (0 by default) is the number of sessions kept in flight or
+ * ready per browser and profile. The queue is only refilled when the {@link DriverPool} found no idle session to
+ * reuse, and never beyond the sessions the pool can still hold under {@code driver.pool.max.size}. Ready sessions are
+ * parked in the {@link SessionRegistry} until they are taken, and quit once they have waited longer than the pool's
+ * idle timeout. A lease waits at most {@code driver.prefetch.wait.seconds} for a build in flight before it launches
+ * its own browser. On shutdown queued builds are cancelled, running builds are awaited, and every session that was
+ * built but never taken is quit, so no browser is left behind.
+ */
+@Component
+@Slf4j
+public class DriverPrefetcher {
+
+    private final Map<String, Deque<Prefetch>> queues = new ConcurrentHashMap<>();
+
+    private final List<Future<WebDriver>> submitted = new ArrayList<>();
+
+    private ExecutorService executor;
+
+    private boolean closed;
+
+    @Autowired
+    private DriverFactory driverFactory;
+
+    @Autowired
+    private DriverMetrics driverMetrics;
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    @Value("${driver.prefetch.depth:0}")
+    private int depth;
+
+    @Value("${driver.prefetch.wait.seconds:30}")
+    private long waitSeconds;
+
+    /**
+     * Takes a prefetched session, waiting a bounded time for it if its build is still in flight, and schedules
+     * replacements. The pool only calls it when it has no idle session to reuse.
+     *
+     * @param url     the base URL
+     * @param browser the browser name
+     * @param profile the {@link BrowserProfile}
+     * @param remote  to execute remotely or locally
+     * @param room    how many more sessions of the browser and profile the pool can hold, the lease included
+     * @return the prefetched {@link WebDriver}, empty if prefetching is off, nothing was prefetched or the build
+     * failed or is not ready in time
+     */
+    public Optional<WebDriver> take(String url, String browser, BrowserProfile profile, boolean remote, int room) {
+        if (depth <= 0) {
+            return Optional.empty();
+        }
+        Deque<Prefetch> queue = queue(url, browser, profile, remote);
+        Prefetch prefetch = queue.pollFirst();
+        refill(url, browser, profile, remote, room - 1);
+        if (prefetch == null) {
+            return Optional.empty();
+        }
+        try {
+            WebDriver driver = prefetch.future.get(waitSeconds, TimeUnit.SECONDS);
+            driver.getWindowHandle();
+            driverMetrics.increment("driver.prefetch.hit", "browser", browser);
+            return Optional.of(driver);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.offerFirst(prefetch);
+            return Optional.empty();
+        } catch (TimeoutException e) {
+            log.info("DriverPrefetcher:take - Prefetched session is not ready yet, launching a new one");
+            queue.offerFirst(prefetch);
+            return Optional.empty();
+        } catch (ExecutionException | CancellationException e) {
+            log.warn("DriverPrefetcher:take - Prefetched session could not be built - " + e.getMessage());
+            return Optional.empty();
+        } catch (RuntimeException e) {
+            log.warn("DriverPrefetcher:take - Prefetched session is not healthy - " + e.getMessage());
+            discard(prefetch.future);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Quits the ready sessions that have not been taken within the idle timeout.
+     *
+     * @param idleTimeout the pool idle timeout
+     */
+    public void evictIdle(Duration idleTimeout) {
+        Instant threshold = Instant.now().minus(idleTimeout);
+        queues.values().forEach(queue -> queue.forEach(prefetch -> {
+            Instant readyAt = prefetch.readyAt;
+            if (readyAt != null && readyAt.isBefore(threshold) && queue.remove(prefetch)) {
+                driverMetrics.increment("driver.prefetch.expired", "browser", prefetch.browser);
+                discard(prefetch.future);
+            }
+        }));
+    }
+
+    /**
+     * Cancels pending builds and quits every session that was built but never taken.
+     */
+    @PreDestroy
+    public void shutdown() {
+        List<Future<WebDriver>> futures;
+        synchronized (this) {
+            closed = true;
+            if (executor == null) {
+                return;
+            }
+            executor.shutdown();
+            futures = new ArrayList<>(submitted);
+        }
+        futures.forEach(future -> future.cancel(false));
+        try {
+            executor.awaitTermination(2, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        queues.values().forEach(queue -> queue.forEach(prefetch -> discard(prefetch.future)));
+        queues.clear();
+    }
+
+    private void refill(String url, String browser, BrowserProfile profile, boolean remote, int room) {
+        Deque<Prefetch> queue = queue(url, browser, profile, remote);
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            submitted.removeIf(Future::isDone);
+            while (queue.size() < Math.min(depth, room)) {
+                Prefetch prefetch = new Prefetch(browser);
+                prefetch.future = executor().submit(() -> build(prefetch, url, profile, remote));
+                submitted.add(prefetch.future);
+                queue.addLast(prefetch);
+            }
+        }
+    }
+
+    private WebDriver build(Prefetch prefetch, String url, BrowserProfile profile, boolean remote) throws Exception {
+        WebDriver driver = driverFactory.newInstance(url, prefetch.browser, profile, remote);
+        synchronized (this) {
+            if (!closed) {
+                sessionRegistry.park(driver);
+                prefetch.readyAt = Instant.now();
+                return driver;
+            }
+        }
+        driverFactory.destroy(driver);
+        throw new CancellationException("DriverPrefetcher is shut down");
+    }
+
+    private void discard(Future<WebDriver> future) {
+        if (future.isDone() && !future.isCancelled()) {
+            try {
+                driverFactory.destroy(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // the build failed, there is no session to quit
+            }
+        }
+    }
+
+    private Deque<Prefetch> queue(String url, String browser, BrowserProfile profile, boolean remote) {
+        return queues.computeIfAbsent(browser + "|" + profile.name() + "|" + remote + "|" + url,
+                key -> new ConcurrentLinkedDeque<>());
+    }
+
+    private ExecutorService executor() {
+        if (executor == null) {
+            AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(depth, runnable -> {
+                Thread thread = new Thread(runnable, "driver-prefetch-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * A session in flight or ready to be taken.
+     */
+    private static final class Prefetch {
+
+        private final String browser;
+
+        private Future<WebDriver> future;
+
+        private volatile Instant readyAt;
+
+        private Prefetch(String browser) {
+            this.browser = browser;
+        }
+    }
+}
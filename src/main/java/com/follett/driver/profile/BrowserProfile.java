@@ -0,0 +1,115 @@
+package com.follett.driver.profile;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.FirefoxProfile;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * BrowserProfile describes how lean a browser session is, independently of the browser and of where it runs.
+ *
+ * @param name             the profile name, as used in {@code @profile:<name>} tags
+ * @param headless         whether the browser runs without a window
+ * @param viewport         the fixed window size, {@code null} to maximize the window instead
+ * @param lean             whether extensions, GPU acceleration and background networking are disabled
+ * @param blocked          the resources the browser does not load
+ * @param userDataTemplate a pre-built user-data (Chromium) or profile (Firefox) directory every session starts
+ *                         from, {@code null} for a fresh one; only used by local sessions
+ */
+public record BrowserProfile(String name, boolean headless, Dimension viewport, boolean lean,
+                             Set<Resource> blocked, Path userDataTemplate) {
+
+    /**
+     * A headed, maximized browser with default settings.
+     */
+    public static final BrowserProfile HEADED = new BrowserProfile("headed", false, null, false, Set.of(), null);
+
+    /**
+     * A headless browser with a desktop viewport and no background activity.
+     */
+    public static final BrowserProfile HEADLESS =
+            new BrowserProfile("headless", true, new Dimension(1920, 1200), true, Set.of(), null);
+
+    /**
+     * The cheapest browser: headless, a laptop viewport, and neither images nor web fonts.
+     */
+    public static final BrowserProfile LEAN = new BrowserProfile("lean", true, new Dimension(1366, 768), true,
+            Set.of(Resource.IMAGES, Resource.FONTS), null);
+
+    /**
+     * A resource type a profile can block.
+     */
+    public enum Resource {
+        IMAGES,
+        FONTS
+    }
+
+    /**
+     * Applies the profile to Chrome or Edge options.
+     *
+     * @param options     the {@link ChromiumOptions}
+     * @param userDataDir the session's copy of the user-data template, {@code null} for none
+     * @param <T>         the options type
+     * @return the options
+     */
+    public <T extends ChromiumOptions<?>> T applyTo(T options, Path userDataDir) {
+        if (headless) {
+            options.setHeadless(true);
+        }
+        if (viewport != null) {
+            options.addArguments("--window-size=" + viewport.getWidth() + "," + viewport.getHeight());
+        }
+        if (lean) {
+            options.addArguments("--disable-extensions", "--disable-gpu", "--disable-background-networking",
+                    "--no-first-run");
+        }
+        if (blocked.contains(Resource.IMAGES)) {
+            options.addArguments("--blink-settings=imagesEnabled=false");
+        }
+        if (blocked.contains(Resource.FONTS)) {
+            options.addArguments("--disable-remote-fonts");
+        }
+        if (userDataDir != null) {
+            options.addArguments("--user-data-dir=" + userDataDir);
+        }
+        return options;
+    }
+
+    /**
+     * Applies the profile to Firefox options.
+     *
+     * @param options     the {@link FirefoxOptions}
+     * @param userDataDir the profile template, {@code null} for none; Firefox copies it for every session
+     * @return the options
+     */
+    public FirefoxOptions applyTo(FirefoxOptions options, Path userDataDir) {
+        if (userDataDir != null) {
+            options.setProfile(new FirefoxProfile(userDataDir.toFile()));
+        }
+        if (headless) {
+            options.addArguments("-headless");
+        }
+        if (viewport != null) {
+            options.addArguments("-width=" + viewport.getWidth(), "-height=" + viewport.getHeight());
+        }
+        if (lean) {
+            options.addPreference("extensions.update.enabled", false)
+                    .addPreference("layers.acceleration.disabled", true)
+                    .addPreference("network.prefetch-next", false)
+                    .addPreference("app.update.auto", false)
+                    .addPreference("browser.safebrowsing.malware.enabled", false)
+                    .addPreference("browser.safebrowsing.phishing.enabled", false)
+                    .addPreference("datareporting.policy.dataSubmissionEnabled", false)
+                    .addPreference("toolkit.telemetry.enabled", false);
+        }
+        if (blocked.contains(Resource.IMAGES)) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (blocked.contains(Resource.FONTS)) {
+            options.addPreference("gfx.downloadable_fonts.enabled", false);
+        }
+        return options;
+    }
+}
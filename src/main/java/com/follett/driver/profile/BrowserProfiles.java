@@ -0,0 +1,218 @@
+package com.follett.driver.profile;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * BrowserProfiles resolves the {@link BrowserProfile} of a session and manages the per-session copies of user-data
+ * templates.
+ * <p/>
+ * A scenario tagged {@code @profile:<name>} gets that profile; other scenarios get {@code browser.profile.local}
+ * ({@code headed} by default) or {@code browser.profile.remote} ({@code headless} by default). The built-in profiles
+ * are {@code headed}, {@code headless} and {@code lean}; any profile can be defined or overridden with properties:
+ * <pre>
+ *     browser.profiles.ci.headless=true
+ *     browser.profiles.ci.viewport=1366x768
+ *     browser.profiles.ci.lean=true
+ *     browser.profiles.ci.block=images,fonts
+ *     browser.profiles.ci.user.data.template=/opt/qa/chrome-profile
+ * </pre>
+ */
+@Component
+@Slf4j
+public class BrowserProfiles {
+
+    private static final String TAG_PREFIX = "@profile:";
+
+    private static final String PROPERTY_PREFIX = "browser.profiles.";
+
+    private static final Map<String, BrowserProfile> BUILT_IN = Stream.of(
+                    BrowserProfile.HEADED, BrowserProfile.HEADLESS, BrowserProfile.LEAN)
+            .collect(Collectors.toMap(BrowserProfile::name, profile -> profile));
+
+    private final Map<String, BrowserProfile> profiles = new ConcurrentHashMap<>();
+
+    private final Map<WebDriver, Path> userDataDirs = new ConcurrentHashMap<>();
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${browser.profile.local:headed}")
+    private String localProfile;
+
+    @Value("${browser.profile.remote:headless}")
+    private String remoteProfile;
+
+    @Value("${browser.profile.user.data.dir:${java.io.tmpdir}/browser-profiles}")
+    private String userDataRoot;
+
+    /**
+     * Selects the profile of a scenario.
+     *
+     * @param tags   the scenario tags
+     * @param remote whether the session runs remotely
+     * @return the {@link BrowserProfile}
+     */
+    public BrowserProfile select(Collection<String> tags, boolean remote) {
+        return tags.stream()
+                .filter(tag -> tag.startsWith(TAG_PREFIX))
+                .map(tag -> get(tag.substring(TAG_PREFIX.length())))
+                .findFirst()
+                .orElseGet(() -> getDefault(remote));
+    }
+
+    /**
+     * Gets the profile used when a scenario does not select one.
+     *
+     * @param remote whether the session runs remotely
+     * @return the {@link BrowserProfile}
+     */
+    public BrowserProfile getDefault(boolean remote) {
+        return get(remote ? remoteProfile : localProfile);
+    }
+
+    /**
+     * Gets a profile by name.
+     *
+     * @param name the profile name
+     * @return the {@link BrowserProfile}
+     * @throws IllegalArgumentException if the profile is neither built in nor defined by properties
+     */
+    public BrowserProfile get(String name) {
+        return profiles.computeIfAbsent(name, this::resolve);
+    }
+
+    /**
+     * Prepares the user-data directory of a new local session. Chromium browsers lock their user-data directory, so
+     * they get a private copy of the template; Firefox copies the template itself.
+     *
+     * @param profile  the {@link BrowserProfile}
+     * @param chromium whether the browser is Chrome or Edge
+     * @return the directory to start the browser with, {@code null} if the profile has no template
+     */
+    public Path prepareUserData(BrowserProfile profile, boolean chromium) {
+        Path template = profile.userDataTemplate();
+        if (template == null || !chromium) {
+            return template;
+        }
+        Path copy = Paths.get(userDataRoot, UUID.randomUUID().toString());
+        try (Stream<Path> files = Files.walk(template)) {
+            for (Path source : files.toList()) {
+                Path target = copy.resolve(template.relativize(source).toString());
+                if (Files.isDirectory(source)) {
+                    Files.createDirectories(target);
+                } else if (!source.getFileName().toString().startsWith("Singleton")) {
+                    Files.copy(source, target);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("BrowserProfiles::prepareUserData - Could not copy " + template, e);
+        }
+        return copy;
+    }
+
+    /**
+     * Binds a private user-data copy to the session using it.
+     *
+     * @param driver      the {@link WebDriver}
+     * @param userDataDir the directory returned by {@link #prepareUserData(BrowserProfile, boolean)}
+     */
+    public void register(WebDriver driver, Path userDataDir) {
+        if (userDataDir != null && userDataDir.startsWith(Paths.get(userDataRoot))) {
+            userDataDirs.put(driver, userDataDir);
+        }
+    }
+
+    /**
+     * Deletes the user-data copy of a quit session in the background.
+     *
+     * @param driver the {@link WebDriver}
+     */
+    public void release(WebDriver driver) {
+        discard(userDataDirs.remove(driver));
+    }
+
+    /**
+     * Deletes a user-data copy whose session could not be started, in the background.
+     *
+     * @param userDataDir the directory returned by {@link #prepareUserData(BrowserProfile, boolean)}
+     */
+    public void discard(Path userDataDir) {
+        if (userDataDir != null && userDataDir.startsWith(Paths.get(userDataRoot))) {
+            CompletableFuture.runAsync(() -> delete(userDataDir));
+        }
+    }
+
+    private BrowserProfile resolve(String name) {
+        String prefix = PROPERTY_PREFIX + name + ".";
+        BrowserProfile base = BUILT_IN.get(name);
+        if (base == null && Stream.of("headless", "viewport", "lean", "block", "user.data.template")
+                .noneMatch(key -> environment.containsProperty(prefix + key))) {
+            throw new IllegalArgumentException(String.format(
+                    "BrowserProfiles::get - No browser profile named %s, define it with %s* properties",
+                    name, prefix));
+        }
+        if (base == null) {
+            base = new BrowserProfile(name, false, null, false, Set.of(), null);
+        }
+        String viewport = environment.getProperty(prefix + "viewport");
+        String block = environment.getProperty(prefix + "block");
+        String template = environment.getProperty(prefix + "user.data.template");
+        BrowserProfile profile = new BrowserProfile(name,
+                environment.getProperty(prefix + "headless", Boolean.class, base.headless()),
+                viewport == null ? base.viewport() : parseViewport(viewport),
+                environment.getProperty(prefix + "lean", Boolean.class, base.lean()),
+                block == null ? base.blocked() : parseBlocked(block),
+                template == null ? base.userDataTemplate() : Paths.get(template));
+        log.info("BrowserProfiles:get - Using browser profile " + profile);
+        return profile;
+    }
+
+    private static Dimension parseViewport(String viewport) {
+        if ("max".equalsIgnoreCase(viewport.trim())) {
+            return null;
+        }
+        String[] size = viewport.toLowerCase(Locale.ROOT).split("x");
+        return new Dimension(Integer.parseInt(size[0].trim()), Integer.parseInt(size[1].trim()));
+    }
+
+    private static Set<BrowserProfile.Resource> parseBlocked(String block) {
+        Set<BrowserProfile.Resource> blocked = EnumSet.noneOf(BrowserProfile.Resource.class);
+        Arrays.stream(block.split(","))
+                .map(String::trim)
+                .filter(resource -> !resource.isEmpty())
+                .map(resource -> BrowserProfile.Resource.valueOf(resource.toUpperCase(Locale.ROOT)))
+                .forEach(blocked::add);
+        return Set.copyOf(blocked);
+    }
+
+    private static void delete(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("BrowserProfiles:release - Could not delete " + directory + " - " + e.getMessage());
+        }
+    }
+}
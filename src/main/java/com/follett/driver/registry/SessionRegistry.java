@@ -0,0 +1,402 @@
+package com.follett.driver.registry;
+
+import com.follett.metrics.DriverMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * SessionRegistry tracks every browser session the {@code DriverFactory} creates, pooled, prefetched and auxiliary
+ * ones alike, together with the thread that owns it and the driver process that serves it.
+ * <p/>
+ * It caps the number of sessions in use at {@code driver.registry.max.live}: session creation, and handing a parked
+ * session over to a scenario, take a permit and wait up to {@code driver.registry.max.wait.seconds} for one. Parked
+ * sessions, idle in the pool or prefetched, give their permit back; their number is bounded by the pool size and the
+ * prefetch depth instead. A watchdog running every {@code driver.registry.watchdog.seconds} reaps parked sessions
+ * older than {@code driver.registry.max.age.minutes} and sessions whose owner thread has died without returning them:
+ * the session is destroyed through the reaper set by the factory and its driver process tree is killed if it is still
+ * alive. Sessions in use are never reaped for their age; the pool retires them when they are returned, see
+ * {@link #isExpired(WebDriver)}. When the context closes, every session still
+ * registered has leaked; the leaks are counted, logged and cleaned up the same way.
+ * <p/>
+ * The driver process of a local session is found among the JVM's child processes by the port its service listens on.
+ */
+@Component
+@Slf4j
+public class SessionRegistry {
+
+    private static final Duration QUIT_GRACE = Duration.ofSeconds(5);
+
+    private final Map<WebDriver, Session> sessions = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "driver-registry-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Semaphore live;
+
+    private Consumer<WebDriver> reaper = WebDriver::quit;
+
+    @Autowired
+    private DriverMetrics driverMetrics;
+
+    @Value("${driver.registry.max.live:8}")
+    private int maxLive;
+
+    @Value("${driver.registry.max.wait.seconds:300}")
+    private long maxWaitSeconds;
+
+    @Value("${driver.registry.max.age.minutes:60}")
+    private long maxAgeMinutes;
+
+    @Value("${driver.registry.watchdog.seconds:30}")
+    private long watchdogSeconds;
+
+    /**
+     * Sets how reaped sessions are destroyed, normally {@code DriverFactory#destroy} so that the resources bound to
+     * the session are released too.
+     *
+     * @param reaper destroys a session
+     */
+    public void setReaper(Consumer<WebDriver> reaper) {
+        this.reaper = reaper;
+    }
+
+    /**
+     * Waits until one more session may be created.
+     *
+     * @param browser the browser name
+     * @throws InterruptedException if interrupted while waiting
+     * @throws WebDriverException if no session is returned within {@code driver.registry.max.wait.seconds}
+     */
+    public void acquire(String browser) throws InterruptedException {
+        if (!live().tryAcquire(maxWaitSeconds, TimeUnit.SECONDS)) {
+            driverMetrics.increment("driver.registry.timeout", "browser", browser);
+            throw new WebDriverException(String.format(
+                    "SessionRegistry::acquire - %d sessions are live, none was returned within %d seconds",
+                    maxLive, maxWaitSeconds));
+        }
+    }
+
+    /**
+     * Gives back the permit of a session that could not be created.
+     */
+    public void release() {
+        live().release();
+    }
+
+    /**
+     * Registers a newly created session, owned by the current thread.
+     *
+     * @param driver  the {@link WebDriver}
+     * @param browser the browser name
+     * @param remote  whether the session runs remotely, in which case there is no local driver process
+     */
+    public void register(WebDriver driver, String browser, boolean remote) {
+        startWatchdog();
+        Optional<ProcessHandle> process = remote ? Optional.empty() : driverProcess(driver);
+        sessions.put(driver, new Session(browser, Instant.now(), process.orElse(null), Thread.currentThread()));
+    }
+
+    /**
+     * Hands a session over to the current thread, e.g. when it is leased from the pool. A parked session takes a
+     * permit again, waiting for one like {@link #acquire(String)}. A session the watchdog has started to reap is
+     * refused, so it is never handed to a scenario that would see it quit mid-run.
+     *
+     * @param driver the {@link WebDriver}
+     * @return {@code false} if the session is being reaped or is no longer registered, and must not be used
+     * @throws InterruptedException if interrupted while waiting
+     * @throws WebDriverException if no permit is returned within {@code driver.registry.max.wait.seconds}
+     */
+    public boolean claim(WebDriver driver) throws InterruptedException {
+        Session session = sessions.get(driver);
+        if (session == null) {
+            return false;
+        }
+        synchronized (session) {
+            if (session.reaping) {
+                return false;
+            }
+            session.owner = new WeakReference<>(Thread.currentThread());
+        }
+        if (session.holdsPermit.compareAndSet(false, true)) {
+            try {
+                acquire(session.browser());
+            } catch (InterruptedException | RuntimeException e) {
+                session.holdsPermit.set(false);
+                session.owner = null;
+                throw e;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks a session as parked, e.g. idle in the pool or prefetched, so the death of its last owner does not reap it
+     * and it no longer counts against {@code driver.registry.max.live}.
+     *
+     * @param driver the {@link WebDriver}
+     */
+    public void park(WebDriver driver) {
+        Session session = sessions.get(driver);
+        if (session != null) {
+            session.owner = null;
+            if (session.holdsPermit.compareAndSet(true, false)) {
+                live().release();
+            }
+        }
+    }
+
+    /**
+     * Checks whether a session is older than {@code driver.registry.max.age.minutes} and should be retired instead of
+     * being reused.
+     *
+     * @param driver the {@link WebDriver}
+     * @return {@code false} for unregistered sessions
+     */
+    public boolean isExpired(WebDriver driver) {
+        Session session = sessions.get(driver);
+        return session != null && session.createdAt().isBefore(Instant.now().minus(Duration.ofMinutes(maxAgeMinutes)));
+    }
+
+    /**
+     * Removes a session that is being destroyed and gives back its permit.
+     *
+     * @param driver the {@link WebDriver}
+     * @return the {@link Session}, empty if it was not registered or was already removed
+     */
+    public Optional<Session> unregister(WebDriver driver) {
+        Session session = sessions.remove(driver);
+        if (session != null && session.holdsPermit.compareAndSet(true, false)) {
+            live().release();
+        }
+        return Optional.ofNullable(session);
+    }
+
+    /**
+     * Makes sure the driver process of a destroyed session is gone: waits a moment for it to exit after
+     * {@code quit()}, then kills the browser processes below it and the driver process itself.
+     *
+     * @param session the {@link Session}
+     */
+    public void kill(Session session) {
+        ProcessHandle process = session.process();
+        if (process == null || !process.isAlive()) {
+            return;
+        }
+        try {
+            process.onExit().get(QUIT_GRACE.toMillis(), TimeUnit.MILLISECONDS);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // still running, kill it
+        }
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+        driverMetrics.increment("driver.registry.killed", "browser", session.browser());
+        log.warn("SessionRegistry:kill - Killed driver process " + process.pid() + " of a " + session.browser()
+                + " session");
+    }
+
+    /**
+     * Gets the number of registered sessions.
+     *
+     * @return the live session count
+     */
+    public int getLiveSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * Reaps every parked session past the maximum age and every session whose owner thread has died. A session is
+     * marked as reaping before it is destroyed, so {@link #claim(WebDriver)} can no longer hand it out.
+     */
+    public void reap() {
+        Instant oldest = Instant.now().minus(Duration.ofMinutes(maxAgeMinutes));
+        sessions.forEach((driver, session) -> {
+            String reason = session.markReaping(oldest);
+            if (reason != null) {
+                reap(driver, reason);
+            }
+        });
+    }
+
+    /**
+     * Counts the sessions that were never destroyed, logs them and cleans them up.
+     */
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        if (sessions.isEmpty()) {
+            return;
+        }
+        Map<String, Long> leaks = sessions.values().stream()
+                .collect(Collectors.groupingBy(Session::browser, TreeMap::new, Collectors.counting()));
+        log.warn("SessionRegistry:shutdown - " + sessions.size() + " sessions leaked " + leaks
+                + ", they will be quit");
+        List.copyOf(sessions.keySet()).forEach(driver -> reap(driver, "leaked"));
+    }
+
+    private void reap(WebDriver driver, String reason) {
+        Session session = sessions.get(driver);
+        if (session == null) {
+            return;
+        }
+        driverMetrics.increment("driver.registry.reaped", "reason", reason, "browser", session.browser());
+        log.warn("SessionRegistry:reap - Reaping a " + session.browser() + " session (" + reason + ") created at "
+                + session.createdAt());
+        try {
+            reaper.accept(driver);
+        } catch (RuntimeException e) {
+            log.warn("SessionRegistry:reap - Could not destroy the session - " + e.getMessage());
+        } finally {
+            unregister(driver);
+            kill(session);
+        }
+    }
+
+    private Optional<ProcessHandle> driverProcess(WebDriver driver) {
+        if (!(driver instanceof RemoteWebDriver remoteWebDriver)) {
+            return Optional.empty();
+        }
+        CommandExecutor executor = remoteWebDriver.getCommandExecutor();
+        if (!(executor instanceof HttpCommandExecutor httpCommandExecutor)) {
+            return Optional.empty();
+        }
+        String port = "port=" + httpCommandExecutor.getAddressOfRemoteServer().getPort();
+        Set<Long> claimed = sessions.values().stream()
+                .map(Session::process)
+                .filter(process -> process != null)
+                .map(ProcessHandle::pid)
+                .collect(Collectors.toSet());
+        return ProcessHandle.current().children()
+                .filter(process -> !claimed.contains(process.pid()))
+                .filter(process -> process.info().arguments().map(List::of).orElse(List.of()).stream()
+                        .anyMatch(argument -> argument.endsWith(port)))
+                .findFirst();
+    }
+
+    private void startWatchdog() {
+        if (started.compareAndSet(false, true)) {
+            watchdog.scheduleWithFixedDelay(this::reap, watchdogSeconds, watchdogSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private synchronized Semaphore live() {
+        if (live == null) {
+            live = new Semaphore(maxLive <= 0 ? Integer.MAX_VALUE : maxLive);
+        }
+        return live;
+    }
+
+    /**
+     * A registered session.
+     */
+    public static final class Session {
+
+        private final String browser;
+
+        private final Instant createdAt;
+
+        private final ProcessHandle process;
+
+        private final AtomicBoolean holdsPermit = new AtomicBoolean(true);
+
+        private volatile WeakReference<Thread> owner;
+
+        private boolean reaping;
+
+        private Session(String browser, Instant createdAt, ProcessHandle process, Thread owner) {
+            this.browser = browser;
+            this.createdAt = createdAt;
+            this.process = process;
+            this.owner = new WeakReference<>(owner);
+        }
+
+        public String browser() {
+            return browser;
+        }
+
+        public Instant createdAt() {
+            return createdAt;
+        }
+
+        /**
+         * Gets the local driver process serving the session.
+         *
+         * @return the {@link ProcessHandle}, {@code null} for remote sessions or when it could not be identified
+         */
+        public ProcessHandle process() {
+            return process;
+        }
+
+        /**
+         * Checks whether the session is parked, i.e. has no owner thread.
+         *
+         * @return {@code true} for idle and prefetched sessions
+         */
+        public boolean isParked() {
+            return owner == null;
+        }
+
+        /**
+         * Marks the session as reaping if it is parked and older than the given instant, or if its owner has died.
+         *
+         * @param oldest the creation time below which a parked session is too old
+         * @return the reap reason, {@code null} if the session is kept
+         */
+        private synchronized String markReaping(Instant oldest) {
+            if (reaping) {
+                return null;
+            }
+            String reason = isParked() ? (createdAt.isBefore(oldest) ? "max-age" : null)
+                    : (isOrphaned() ? "dead-owner" : null);
+            reaping = reason != null;
+            return reason;
+        }
+
+        /**
+         * Checks whether the session is owned by a thread that no longer exists.
+         *
+         * @return {@code false} for parked sessions
+         */
+        public boolean isOrphaned() {
+            WeakReference<Thread> reference = owner;
+            if (reference == null) {
+                return false;
+            }
+            Thread thread = reference.get();
+            return thread == null || !thread.isAlive();
+        }
+    }
+}
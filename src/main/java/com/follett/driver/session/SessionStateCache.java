@@ -0,0 +1,184 @@
+package com.follett.driver.session;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.follett.metrics.DriverMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * SessionStateCache lets scenarios skip the CAS login UI by replaying the state of an earlier login.
+ * <p/>
+ * After one real login per user/role and environment the cookies of the application origin plus its local and session
+ * storage are captured. Later scenarios get that state injected into their (new or recycled) driver and checked with
+ * a cheap validation; when the state has expired, by {@code session.cache.ttl.minutes} or by its cookies, or fails
+ * validation, a real login runs and refreshes the cache. Only one thread logs in per key at a time, the others wait
+ * and reuse its result.
+ */
+@Component
+@Slf4j
+public class SessionStateCache {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final TypeReference<Map<String, String>> STORAGE_TYPE = new TypeReference<>() {
+    };
+
+    private static final String READ_STORAGE_SCRIPT = "return JSON.stringify(Object.assign({}, window[arguments[0]]));";
+
+    private static final String WRITE_STORAGE_SCRIPT =
+            "var storage = window[arguments[0]]; var items = JSON.parse(arguments[1]);"
+                    + " Object.keys(items).forEach(function (key) { storage.setItem(key, items[key]); });";
+
+    private final Map<String, SessionState> states = new ConcurrentHashMap<>();
+
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    @Autowired
+    private DriverMetrics driverMetrics;
+
+    @Value("${env}")
+    private String environment;
+
+    @Value("${session.cache.ttl.minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${session.cache.login.marker:/login}")
+    private String loginMarker;
+
+    /**
+     * Authenticates the driver as the given role, validating the restored state by checking that the browser did not
+     * land on a URL containing {@code session.cache.login.marker}.
+     *
+     * @param driver the {@link WebDriver}
+     * @param role   the user or role name
+     * @param login  performs the real UI login on the driver
+     */
+    public void authenticate(WebDriver driver, String role, Consumer<WebDriver> login) {
+        authenticate(driver, role, login, webDriver -> !webDriver.getCurrentUrl().contains(loginMarker));
+    }
+
+    /**
+     * Authenticates the driver as the given role, from the cache when possible.
+     *
+     * @param driver          the {@link WebDriver}
+     * @param role            the user or role name
+     * @param login           performs the real UI login on the driver
+     * @param isAuthenticated cheap check run after the state is restored
+     */
+    public void authenticate(WebDriver driver, String role, Consumer<WebDriver> login,
+                             Predicate<WebDriver> isAuthenticated) {
+        String key = role + "@" + environment;
+        if (tryRestore(key, driver, isAuthenticated)) {
+            return;
+        }
+        ReentrantLock lock = locks.computeIfAbsent(key, ignored -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (tryRestore(key, driver, isAuthenticated)) {
+                return;
+            }
+            driverMetrics.increment("session.cache.miss", "role", role);
+            login.accept(driver);
+            states.put(key, capture(driver));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the cached state of a role, forcing the next scenario to log in.
+     *
+     * @param role the user or role name
+     */
+    public void invalidate(String role) {
+        states.remove(role + "@" + environment);
+    }
+
+    private boolean tryRestore(String key, WebDriver driver, Predicate<WebDriver> isAuthenticated) {
+        SessionState state = states.get(key);
+        if (state == null) {
+            return false;
+        }
+        if (state.expiresAt().isBefore(Instant.now())) {
+            states.remove(key, state);
+            return false;
+        }
+        try {
+            restore(driver, state);
+            if (isAuthenticated.test(driver)) {
+                driverMetrics.increment("session.cache.hit");
+                return true;
+            }
+        } catch (RuntimeException e) {
+            log.warn("SessionStateCache:restore - Could not restore session state - " + e.getMessage());
+        }
+        states.remove(key, state);
+        return false;
+    }
+
+    private SessionState capture(WebDriver driver) {
+        URI current = URI.create(driver.getCurrentUrl());
+        String origin = current.getScheme() + "://" + current.getAuthority() + "/";
+        Set<Cookie> cookies = driver.manage().getCookies();
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(ttlMinutes));
+        for (Cookie cookie : cookies) {
+            if (cookie.getExpiry() != null && cookie.getExpiry().toInstant().isBefore(expiresAt)) {
+                expiresAt = cookie.getExpiry().toInstant();
+            }
+        }
+        return new SessionState(origin, driver.getCurrentUrl(), Set.copyOf(cookies),
+                readStorage(driver, "localStorage"), readStorage(driver, "sessionStorage"), expiresAt);
+    }
+
+    private void restore(WebDriver driver, SessionState state) {
+        driver.get(state.origin());
+        driver.manage().deleteAllCookies();
+        state.cookies().forEach(cookie -> driver.manage().addCookie(cookie));
+        writeStorage(driver, "localStorage", state.localStorage());
+        writeStorage(driver, "sessionStorage", state.sessionStorage());
+        driver.get(state.landingUrl());
+    }
+
+    private Map<String, String> readStorage(WebDriver driver, String storage) {
+        Object json = ((JavascriptExecutor) driver).executeScript(READ_STORAGE_SCRIPT, storage);
+        try {
+            return json == null ? Map.of() : Map.copyOf(MAPPER.readValue(json.toString(), STORAGE_TYPE));
+        } catch (JsonProcessingException e) {
+            log.warn("SessionStateCache:capture - Could not read " + storage + " - " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private void writeStorage(WebDriver driver, String storage, Map<String, String> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        try {
+            ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE_SCRIPT, storage,
+                    MAPPER.writeValueAsString(items));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record SessionState(String origin, String landingUrl, Set<Cookie> cookies,
+                                Map<String, String> localStorage, Map<String, String> sessionStorage,
+                                Instant expiresAt) {
+    }
+}
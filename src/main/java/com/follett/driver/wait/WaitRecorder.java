@@ -0,0 +1,115 @@
+package com.follett.driver.wait;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.follett.context.ScenarioContext;
+import com.follett.metrics.DriverMetrics;
+import io.cucumber.java.Scenario;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * WaitRecorder records how long every explicit wait actually took, as the {@code driver.wait} timer, and keeps the
+ * slowest waits of the run, which are written to {@code wait.report.file} when the run ends.
+ */
+@Component
+@Slf4j
+public class WaitRecorder {
+
+    private final PriorityQueue<WaitSample> slowest = new PriorityQueue<>(Comparator.comparing(WaitSample::elapsed));
+
+    @Autowired
+    private DriverMetrics driverMetrics;
+
+    @Value("${wait.report.size:25}")
+    private int reportSize;
+
+    @Value("${wait.report.file:cucumber-reports/slowest-waits.json}")
+    private String reportFile;
+
+    /**
+     * Records a finished wait.
+     *
+     * @param description what was waited for
+     * @param elapsed     how long the wait took
+     * @param satisfied   whether the condition was met before the budget ran out
+     */
+    public void record(String description, Duration elapsed, boolean satisfied) {
+        driverMetrics.record("driver.wait", elapsed, "outcome", satisfied ? "satisfied" : "timeout");
+        Scenario scenario = ScenarioContext.current().getScenario();
+        WaitSample sample = new WaitSample(description, scenario == null ? null : scenario.getName(),
+                elapsed, satisfied);
+        synchronized (slowest) {
+            slowest.add(sample);
+            if (slowest.size() > reportSize) {
+                slowest.poll();
+            }
+        }
+    }
+
+    /**
+     * Gets the slowest waits recorded so far, slowest first.
+     *
+     * @return the samples
+     */
+    public List<WaitSample> getSlowest() {
+        List<WaitSample> samples;
+        synchronized (slowest) {
+            samples = new ArrayList<>(slowest);
+        }
+        samples.sort(Comparator.comparing(WaitSample::elapsed).reversed());
+        return samples;
+    }
+
+    @PreDestroy
+    public void writeReport() {
+        List<WaitSample> samples = getSlowest();
+        if (samples.isEmpty()) {
+            return;
+        }
+        Path file = Paths.get(reportFile);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(),
+                    samples.stream().map(WaitSample::toReport).toList());
+        } catch (IOException e) {
+            log.error("WaitRecorder:writeReport - Could not write the wait report: " + e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * A finished wait.
+     *
+     * @param description what was waited for
+     * @param scenario    the scenario name, {@code null} outside of a scenario
+     * @param elapsed     how long the wait took
+     * @param satisfied   whether the condition was met
+     */
+    public record WaitSample(String description, String scenario, Duration elapsed, boolean satisfied) {
+
+        private Map<String, Object> toReport() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("description", description);
+            report.put("scenario", scenario);
+            report.put("elapsedMs", elapsed.toMillis());
+            report.put("satisfied", satisfied);
+            return report;
+        }
+    }
+}
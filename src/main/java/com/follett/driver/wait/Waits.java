@@ -0,0 +1,170 @@
+package com.follett.driver.wait;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Waits is the explicit-wait entry point of a driver. Drivers run with a zero implicit wait, so every wait in a step is
+ * explicit, bounded by its own budget and recorded by the {@link WaitRecorder}.
+ * <p/>
+ * Conditions are polled adaptively: quickly at first, so fast pages are not slowed down, then backing off up to the
+ * maximum poll interval, so slow pages are not hammered with commands.
+ * <pre>
+ *     driver.waits().upTo(Duration.ofSeconds(5)).describedAs("login form").until(visibilityOfElementLocated(form));
+ *     driver.waits().untilAbsent(By.id("spinner"));
+ * </pre>
+ */
+public final class Waits {
+
+    private static final Duration INITIAL_POLL = Duration.ofMillis(50);
+
+    private static final Duration MAX_POLL = Duration.ofMillis(500);
+
+    private final WebDriver driver;
+
+    private final WaitRecorder recorder;
+
+    private final Duration defaultTimeout;
+
+    public Waits(WebDriver driver, WaitRecorder recorder, Duration defaultTimeout) {
+        this.driver = driver;
+        this.recorder = recorder;
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    /**
+     * Starts a wait with the given budget.
+     *
+     * @param timeout the maximum time the wait may take
+     * @return the {@link Wait}
+     */
+    public Wait upTo(Duration timeout) {
+        return new Wait(timeout);
+    }
+
+    /**
+     * Waits with the default budget until the condition returns a non-null, non-false value.
+     *
+     * @param condition the condition
+     * @param <T>       the condition result type
+     * @return the condition result
+     */
+    public <T> T until(Function<? super WebDriver, T> condition) {
+        return upTo(defaultTimeout).until(condition);
+    }
+
+    /**
+     * Waits with the default budget until no element matches the locator.
+     *
+     * @param locator the {@link By} locator
+     */
+    public void untilAbsent(By locator) {
+        upTo(defaultTimeout).untilAbsent(locator);
+    }
+
+    /**
+     * A single wait with its own budget, polling interval and description.
+     */
+    public final class Wait {
+
+        private final Duration timeout;
+
+        private Duration initialPoll = INITIAL_POLL;
+
+        private Duration maxPoll = MAX_POLL;
+
+        private String description;
+
+        private Wait(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        /**
+         * Sets the polling interval range.
+         *
+         * @param initial the first polling interval
+         * @param max     the interval the polling backs off to
+         * @return this {@link Wait}
+         */
+        public Wait pollingBetween(Duration initial, Duration max) {
+            this.initialPoll = initial;
+            this.maxPoll = max;
+            return this;
+        }
+
+        /**
+         * Sets the description used in the timeout message and the wait report.
+         *
+         * @param description what is waited for
+         * @return this {@link Wait}
+         */
+        public Wait describedAs(String description) {
+            this.description = description;
+            return this;
+        }
+
+        /**
+         * Waits until the condition returns a non-null, non-false value.
+         *
+         * @param condition the condition
+         * @param <T>       the condition result type
+         * @return the condition result
+         * @throws TimeoutException if the budget runs out first
+         */
+        public <T> T until(Function<? super WebDriver, T> condition) {
+            String label = description != null ? description : condition.toString();
+            long start = System.nanoTime();
+            long deadline = start + timeout.toNanos();
+            Duration poll = initialPoll;
+            RuntimeException lastError = null;
+            while (true) {
+                try {
+                    T value = condition.apply(driver);
+                    if (value != null && !Boolean.FALSE.equals(value)) {
+                        recorder.record(label, Duration.ofNanos(System.nanoTime() - start), true);
+                        return value;
+                    }
+                } catch (NoSuchElementException | StaleElementReferenceException e) {
+                    lastError = e;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    recorder.record(label, Duration.ofNanos(System.nanoTime() - start), false);
+                    throw new TimeoutException(String.format(
+                            "Expected condition failed: waiting for %s (tried for %d ms)", label, timeout.toMillis()),
+                            lastError);
+                }
+                sleep(Math.min(poll.toNanos(), remaining));
+                poll = poll.multipliedBy(2).compareTo(maxPoll) > 0 ? maxPoll : poll.multipliedBy(2);
+            }
+        }
+
+        /**
+         * Waits until no element matches the locator. With no implicit wait each check returns immediately, so an
+         * element that is already gone costs a single round-trip.
+         *
+         * @param locator the {@link By} locator
+         * @throws TimeoutException if elements still match when the budget runs out
+         */
+        public void untilAbsent(By locator) {
+            if (description == null) {
+                description = "absence of " + locator;
+            }
+            until(webDriver -> webDriver.findElements(locator).isEmpty());
+        }
+
+        private void sleep(long nanos) {
+            try {
+                Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("Interrupted while waiting", e);
+            }
+        }
+    }
+}
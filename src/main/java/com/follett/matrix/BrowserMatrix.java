@@ -0,0 +1,57 @@
+package com.follett.matrix;
+
+import io.qameta.allure.Allure;
+import java.util.Optional;
+
+/**
+ * BrowserMatrix holds the browser of the matrix run a thread belongs to. The {@link MatrixRunner} sets it on the
+ * thread running the Cucumber runtime of each browser; the scenario threads that runtime starts inherit it, so every
+ * scenario sees the browser of its own runtime instead of the {@code browser} property of the JVM.
+ */
+public final class BrowserMatrix {
+
+    private static final InheritableThreadLocal<String> BROWSER = new InheritableThreadLocal<>();
+
+    private BrowserMatrix() {
+    }
+
+    /**
+     * Gets the matrix browser of the current thread.
+     *
+     * @return the browser name, empty outside a matrix run
+     */
+    public static Optional<String> current() {
+        return Optional.ofNullable(BROWSER.get());
+    }
+
+    /**
+     * Gets the browser the current thread runs scenarios with.
+     *
+     * @param configured the {@code browser} property
+     * @return the matrix browser, the configured one outside a matrix run
+     */
+    public static String browserOr(String configured) {
+        String browser = BROWSER.get();
+        return browser != null ? browser : configured;
+    }
+
+    static void set(String browser) {
+        BROWSER.set(browser);
+    }
+
+    /**
+     * Labels the Allure result of the running scenario with its matrix browser. The browser is appended to the
+     * history id too, otherwise Allure would report the runs of the other browsers as retries of the same test.
+     */
+    public static void labelScenario() {
+        current().ifPresent(browser -> {
+            Allure.parameter("browser", browser);
+            Allure.label("browser", browser);
+            Allure.getLifecycle().updateTestCase(result -> {
+                if (result.getHistoryId() != null) {
+                    result.setHistoryId(result.getHistoryId() + "-" + browser);
+                }
+            });
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package com.follett.matrix;
+
+import io.cucumber.core.cli.Main;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MatrixRunner runs the suite against several browsers from a single JVM: one Cucumber runtime per browser, all in
+ * parallel, sharing the Spring context and its warm-up.
+ * <p/>
+ * Each runtime runs on its own thread with its browser set in {@link BrowserMatrix}, so its scenarios lease sessions
+ * of that browser from their own {@code DriverPool} and take grid capacity from that browser's limit in the
+ * {@code GridConcurrencyGovernor}. The first browser runs every selected scenario; the other ones only run the
+ * {@code @web} scenarios, since the rest do not depend on the browser. Configuration is read from system properties:
+ * <ul>
+ *     <li>{@code matrix.browsers} - the comma-separated browsers (required), e.g. {@code chrome,firefox,edge}</li>
+ *     <li>{@code matrix.plugins} - the comma-separated Cucumber plugins of each runtime, {@code {browser}} being
+ *     replaced by the browser name (default: a JSON report in {@code cucumber-reports/{browser}} and the Allure
+ *     plugin); do not also set report plugins in {@code cucumber.plugin}, every runtime would write to them</li>
+ *     <li>{@code cucumber.threads} - the scenarios each runtime runs in parallel (default 1)</li>
+ *     <li>{@code matrix.tags} - the tag expression selecting the scenarios (default: {@code cucumber.filter.tags})
+ *     </li>
+ * </ul>
+ * The tags only reach the runtimes through their arguments: {@code cucumber.filter.tags} is cleared before they
+ * start, since Cucumber lets the system property override the {@code --tags} option and every browser but the first
+ * would then run more than its {@code @web} scenarios.
+ * <p/>
+ * The other {@code cucumber.*} properties (glue, features) and the arguments are passed to every runtime. Unless
+ * {@code driver.registry.max.live} is set, the live session cap of the {@code SessionRegistry} is raised to
+ * 8 sessions per browser. The exit status is the highest status of the runtimes.
+ * <pre>
+ *     mvn test-compile exec:java -Dexec.mainClass=com.follett.matrix.MatrixRunner -Dexec.classpathScope=test
+ *         -Dmatrix.browsers=chrome,firefox -Dmatrix.tags=@smoke
+ * </pre>
+ */
+public final class MatrixRunner {
+
+    private static final String DEFAULT_PLUGINS =
+            "json:cucumber-reports/{browser}/cucumber.json,io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm";
+
+    private static final int LIVE_SESSIONS_PER_BROWSER = 8;
+
+    private MatrixRunner() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        List<String> browsers = split(System.getProperty("matrix.browsers", ""));
+        if (browsers.isEmpty()) {
+            throw new IllegalArgumentException("MatrixRunner::main - matrix.browsers is not set");
+        }
+        if (System.getProperty("driver.registry.max.live") == null) {
+            System.setProperty("driver.registry.max.live",
+                    String.valueOf(LIVE_SESSIONS_PER_BROWSER * browsers.size()));
+        }
+        List<String> plugins = split(System.getProperty("matrix.plugins", DEFAULT_PLUGINS));
+        String threads = System.getProperty("cucumber.threads", "1");
+        String tags = System.getProperty("matrix.tags", System.getProperty("cucumber.filter.tags", ""));
+        System.clearProperty("cucumber.filter.tags");
+
+        Map<String, Byte> statuses = new ConcurrentHashMap<>();
+        List<Thread> runtimes = new ArrayList<>();
+        for (String browser : browsers) {
+            List<String> argv = new ArrayList<>(List.of("--threads", threads));
+            plugins.forEach(plugin -> argv.addAll(List.of("--plugin", plugin.replace("{browser}", browser))));
+            String browserTags = browser.equals(browsers.get(0)) ? tags
+                    : tags.isBlank() ? "@web" : "(" + tags + ") and @web";
+            if (!browserTags.isBlank()) {
+                argv.addAll(List.of("--tags", browserTags));
+            }
+            argv.addAll(Arrays.asList(args));
+            Thread runtime = new Thread(() -> {
+                BrowserMatrix.set(browser);
+                statuses.put(browser, Main.run(argv.toArray(String[]::new),
+                        Thread.currentThread().getContextClassLoader()));
+            }, "matrix-" + browser);
+            runtimes.add(runtime);
+            runtime.start();
+        }
+        for (Thread runtime : runtimes) {
+            runtime.join();
+        }
+
+        byte status = 0;
+        for (String browser : browsers) {
+            byte browserStatus = statuses.getOrDefault(browser, (byte) 1);
+            System.out.printf("%s: %s%n", browser, browserStatus == 0 ? "passed" : "failed (" + browserStatus + ")");
+            status = (byte) Math.max(status, browserStatus);
+        }
+        System.exit(status);
+    }
+
+    private static List<String> split(String values) {
+        return Arrays.stream(values.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .distinct()
+                .toList();
+    }
+}
@@ -0,0 +1,173 @@
+package com.follett.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DriverMetrics holds the Micrometer timers and counters of the driver lifecycle (creation phases, reset, teardown,
+ * retries and failures) and dumps them as a JSON summary next to the Cucumber reports when the run ends.
+ * <p/>
+ * Every timer publishes its p50 and p95, so startup cost can be compared across builds. The percentiles cover the
+ * whole run: their statistics window is {@code metrics.percentile.window.hours} long instead of Micrometer's
+ * default of two minutes, which would only describe the last minutes of the run when the summary is written.
+ * <p/>
+ * Every meter name has a single set of tag keys, since the meters of one name could no longer be aggregated across
+ * tags otherwise. A meter tagged with other keys is not registered: it is recorded against a throwaway registry that
+ * is left out of the summary, and the mismatch is logged once per name, so instrumentation never fails a scenario.
+ */
+@Component
+@Slf4j
+public class DriverMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.95};
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private final Instant startedAt = Instant.now();
+
+    private final MeterRegistry discarded = new SimpleMeterRegistry();
+
+    private final Map<String, Set<String>> tagKeys = new ConcurrentHashMap<>();
+
+    private final Set<String> mismatched = ConcurrentHashMap.newKeySet();
+
+    @Value("${metrics.percentile.window.hours:24}")
+    private long percentileWindowHours = 24;
+
+    @Value("${metrics.summary.file:cucumber-reports/driver-metrics.json}")
+    private String summaryFile;
+
+    /**
+     * Gets or creates a timer.
+     *
+     * @param name the timer name
+     * @param tags the tags as key/value pairs
+     * @return the {@link Timer}
+     */
+    public Timer timer(String name, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentiles(PERCENTILES)
+                .distributionStatisticExpiry(Duration.ofHours(percentileWindowHours))
+                .distributionStatisticBufferLength(1)
+                .register(checkTagKeys(name, tags) ? registry : discarded);
+    }
+
+    /**
+     * Records a duration against a timer.
+     *
+     * @param name     the timer name
+     * @param duration the duration
+     * @param tags     the tags as key/value pairs
+     */
+    public void record(String name, Duration duration, String... tags) {
+        timer(name, tags).record(duration);
+    }
+
+    /**
+     * Increments a counter.
+     *
+     * @param name the counter name
+     * @param tags the tags as key/value pairs
+     */
+    public void increment(String name, String... tags) {
+        Counter.builder(name).tags(tags).register(checkTagKeys(name, tags) ? registry : discarded).increment();
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    Set<String> getMismatchedNames() {
+        return mismatched;
+    }
+
+    /**
+     * Writes the JSON summary of every meter.
+     */
+    @PreDestroy
+    public void writeSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("startedAt", startedAt.toString());
+        summary.put("finishedAt", Instant.now().toString());
+        List<Map<String, Object>> meters = new ArrayList<>();
+        registry.getMeters().forEach(meter -> meters.add(describe(meter)));
+        summary.put("meters", meters);
+
+        Path file = Paths.get(summaryFile);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), summary);
+        } catch (IOException e) {
+            log.error("DriverMetrics:writeSummary - Could not write the metrics summary: " + e.getLocalizedMessage());
+        }
+    }
+
+    private boolean checkTagKeys(String name, String... tags) {
+        Set<String> keys = new TreeSet<>();
+        for (int i = 0; i < tags.length; i += 2) {
+            keys.add(tags[i]);
+        }
+        Set<String> registered = tagKeys.putIfAbsent(name, keys);
+        if (registered == null || registered.equals(keys)) {
+            return true;
+        }
+        if (mismatched.add(name)) {
+            log.warn(String.format("DriverMetrics:checkTagKeys - %s is tagged with %s, not %s; skipping it",
+                    name, registered, keys));
+        }
+        return false;
+    }
+
+    private Map<String, Object> describe(Meter meter) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("name", meter.getId().getName());
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (Tag tag : meter.getId().getTags()) {
+            tags.put(tag.getKey(), tag.getValue());
+        }
+        description.put("tags", tags);
+        if (meter instanceof Timer timer) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            description.put("count", snapshot.count());
+            description.put("totalMs", snapshot.total(TimeUnit.MILLISECONDS));
+            description.put("meanMs", snapshot.mean(TimeUnit.MILLISECONDS));
+            description.put("maxMs", snapshot.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                description.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+                        percentile.value(TimeUnit.MILLISECONDS));
+            }
+        } else if (meter instanceof Counter counter) {
+            description.put("count", counter.count());
+        }
+        return description;
+    }
+}
@@ -0,0 +1,139 @@
+package com.follett.report;
+
+import com.follett.driver.pool.DriverPool;
+import com.follett.matrix.BrowserMatrix;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * RunEnvironment collects run-level metadata and writes it as the Allure {@code environment.xml} exactly once, when the
+ * run ends.
+ * <p/>
+ * The browser name and version come from the capabilities of the first live session, so the report shows what really
+ * ran instead of the configured value; a matrix run lists its browsers and records the version of each one from its
+ * first session. The file is written to a temporary file and moved into place so a concurrent reader never sees it
+ * half written.
+ */
+@Component
+@Slf4j
+public class RunEnvironment {
+
+    private static final String ENVIRONMENT_FILE = "environment.xml";
+
+    private final Map<String, String> parameters = new ConcurrentSkipListMap<>();
+
+    private final Set<String> sessionsRecorded = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean written = new AtomicBoolean();
+
+    @Autowired
+    private DriverPool driverPool;
+
+    @Value("${browser:API}")
+    private String browser;
+
+    @Value("${env}")
+    private String environment;
+
+    @Value("${matrix.browsers:}")
+    private String matrixBrowsers;
+
+    @Value("${cucumber.threads:1}")
+    private int threads;
+
+    @Value("${allure.environment.dir:${user.dir}/allure-reports}")
+    private String allureDir;
+
+    /**
+     * Records the browser name and version of the first live session, of each browser in a matrix run. Later calls
+     * are no-ops.
+     *
+     * @param driver the {@link WebDriver}
+     */
+    public void recordSession(WebDriver driver) {
+        String matrixBrowser = BrowserMatrix.current().orElse(null);
+        if (driver instanceof HasCapabilities hasCapabilities
+                && sessionsRecorded.add(matrixBrowser == null ? "" : matrixBrowser)) {
+            Capabilities capabilities = hasCapabilities.getCapabilities();
+            if (matrixBrowser == null) {
+                parameters.put("Browser", capabilities.getBrowserName());
+                parameters.put("Browser.Version", capabilities.getBrowserVersion());
+            } else {
+                parameters.put("Browser." + matrixBrowser + ".Version", capabilities.getBrowserVersion());
+            }
+        }
+    }
+
+    /**
+     * Records an additional run-level parameter.
+     *
+     * @param key   the parameter name
+     * @param value the parameter value
+     */
+    public void put(String key, String value) {
+        parameters.put(key, value);
+    }
+
+    /**
+     * Writes the Allure environment file. Only the first call writes.
+     */
+    @PreDestroy
+    public void write() {
+        if (!written.compareAndSet(false, true)) {
+            return;
+        }
+        if (!matrixBrowsers.isBlank()) {
+            parameters.put("Browser", matrixBrowsers);
+        }
+        parameters.putIfAbsent("Browser", browser);
+        parameters.put("Environment", environment);
+        parameters.put("Threads", String.valueOf(threads));
+        parameters.put("Driver.Pool.Enabled", String.valueOf(driverPool.isEnabled()));
+        parameters.put("Driver.Pool.MaxSize", String.valueOf(driverPool.getMaxSize()));
+        parameters.put("Driver.Pool.IdleTimeout", driverPool.getIdleTimeout() + "s");
+
+        StringBuilder xml = new StringBuilder("<environment>\n");
+        parameters.forEach((key, value) -> xml.append("    <parameter>\n")
+                .append("        <key>").append(escape(key)).append("</key>\n")
+                .append("        <value>").append(escape(value)).append("</value>\n")
+                .append("    </parameter>\n"));
+        xml.append("</environment>\n");
+
+        Path file = Paths.get(allureDir, ENVIRONMENT_FILE);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), ENVIRONMENT_FILE, ".tmp");
+            Files.writeString(tmp, xml, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("RunEnvironment:write - Could not write the Allure environment: " + e.getLocalizedMessage());
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;");
+    }
+}
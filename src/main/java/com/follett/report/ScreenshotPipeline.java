@@ -0,0 +1,240 @@
+package com.follett.report;
+
+import com.follett.context.ScenarioContext;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ScreenshotPipeline takes the shrinking of raw PNG screenshots off the scenario teardown path.
+ * <p/>
+ * {@link #submit(ScenarioContext, byte[], String)} only hashes the screenshot and queues it, so the session can be
+ * released right after the screenshot is grabbed. Downscaling and re-encoding happen on a bounded background executor
+ * while the session is reset, and the encoded image is attached to the report by the last after-hook through
+ * {@link ScenarioContext#awaitAttachments(Duration)}. When the queue is full the submitting thread encodes the
+ * screenshot itself, which throttles producers instead of growing the queue. A screenshot identical to one of the
+ * last {@code screenshot.dedup.size} ones reuses its encoding, and screenshots that stay above
+ * {@code screenshot.max.bytes} after downscaling are dropped and not attached.
+ * <p/>
+ * The report carries the images, so no files are written by default; with {@code screenshot.files=true} a copy of
+ * every distinct screenshot is also written to {@code screenshot.dir}, named after its hash. Pending work is flushed
+ * when the Spring context closes at the end of the run.
+ */
+@Component
+@Slf4j
+public class ScreenshotPipeline {
+
+    private static final int MAX_SHRINK_ATTEMPTS = 3;
+
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, CompletableFuture<byte[]>> recent;
+
+    private final ThreadPoolExecutor executor;
+
+    @Value("${screenshot.files:false}")
+    private boolean writeFiles;
+
+    @Value("${screenshot.dir:cucumber-reports/screenshots}")
+    private String screenshotDir;
+
+    @Value("${screenshot.format:jpg}")
+    private String format;
+
+    @Value("${screenshot.quality:0.75}")
+    private float quality;
+
+    @Value("${screenshot.max.width:1280}")
+    private int maxWidth;
+
+    @Value("${screenshot.max.bytes:524288}")
+    private long maxBytes;
+
+    public ScreenshotPipeline(@Value("${screenshot.threads:2}") int threads,
+                              @Value("${screenshot.queue.capacity:32}") int queueCapacity,
+                              @Value("${screenshot.dedup.size:16}") int dedupSize) {
+        recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<byte[]>> eldest) {
+                return size() > dedupSize;
+            }
+        };
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-pipeline-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Queues the encoding of a screenshot and registers the encoded image as a pending attachment of the scenario.
+     *
+     * @param context the {@link ScenarioContext} to attach the screenshot to
+     * @param png     the raw PNG screenshot
+     * @param name    the attachment name
+     */
+    public void submit(ScenarioContext context, byte[] png, String name) {
+        String extension = extension();
+        String hash = sha256(png);
+        CompletableFuture<byte[]> encoded = new CompletableFuture<>();
+        CompletableFuture<byte[]> previous;
+        synchronized (recent) {
+            previous = recent.putIfAbsent(hash + "." + extension, encoded);
+        }
+        if (previous != null) {
+            encoded = previous;
+        } else {
+            CompletableFuture<byte[]> result = encoded;
+            executor.execute(() -> {
+                try {
+                    result.complete(encode(png, hash, extension));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        }
+        context.attachLater(encoded, "jpg".equals(extension) ? "image/jpeg" : "image/" + extension, name);
+    }
+
+    /**
+     * Waits for every queued screenshot to be encoded and written and stops the background executor.
+     */
+    @PreDestroy
+    public void flush() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(2, TimeUnit.MINUTES)) {
+                log.warn("ScreenshotPipeline:flush - {} screenshots were not written in time",
+                        executor.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private byte[] encode(byte[] png, String hash, String extension) {
+        byte[] encoded = process(png, extension);
+        if (encoded != null && writeFiles && seen.add(hash)) {
+            write(encoded, Paths.get(screenshotDir, hash + "." + extension));
+        }
+        return encoded;
+    }
+
+    private byte[] process(byte[] png, String extension) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                log.error("ScreenshotPipeline:process - Screenshot could not be decoded");
+                return null;
+            }
+            int width = Math.min(image.getWidth(), maxWidth);
+            byte[] encoded = encode(scale(image, width), extension);
+            for (int attempt = 0; encoded.length > maxBytes && attempt < MAX_SHRINK_ATTEMPTS; attempt++) {
+                width = Math.max(1, width / 2);
+                encoded = encode(scale(image, width), extension);
+            }
+            if (encoded.length > maxBytes) {
+                log.warn("ScreenshotPipeline:process - Screenshot dropped, {} bytes exceeds the {} bytes cap",
+                        encoded.length, maxBytes);
+                return null;
+            }
+            return encoded;
+        } catch (IOException e) {
+            log.error("ScreenshotPipeline:process - Could not encode screenshot: " + e.getLocalizedMessage());
+            return null;
+        }
+    }
+
+    private void write(byte[] encoded, Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "screenshot", ".tmp");
+            Files.write(tmp, encoded);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("ScreenshotPipeline:write - Could not write screenshot: " + e.getLocalizedMessage());
+        }
+    }
+
+    private BufferedImage scale(BufferedImage image, int width) {
+        int height = Math.max(1, (int) ((long) image.getHeight() * width / image.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private byte[] encode(BufferedImage image, String extension) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(extension).next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if ("jpg".equals(extension) && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private String extension() {
+        String extension = format.toLowerCase();
+        if ("jpeg".equals(extension)) {
+            return "jpg";
+        }
+        if (!ImageIO.getImageWritersByFormatName(extension).hasNext()) {
+            return "jpg";
+        }
+        return extension;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.follett.report.browserlog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.follett.context.ScenarioContext;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * BrowserLogCapture keeps the most recent browser console entries and network requests of every session in bounded
+ * ring buffers, and attaches them to the report only when a scenario fails.
+ * <p/>
+ * Chrome and Edge sessions with a DevTools connection stream {@code Runtime}, {@code Log} and {@code Network} events
+ * into the buffers while the scenario runs; each buffer holds the last {@code browser.log.capture.size} entries, so
+ * a passing scenario only pays for the buffer writes. Sessions without DevTools (Firefox, remote sessions) record
+ * nothing while they run: on failure their entries are read once from the Selenium browser log, where the driver
+ * supports it, and from the page's resource timing entries.
+ * <p/>
+ * The buffers are cleared whenever a session is leased for a new scenario, and dropped when it is destroyed.
+ */
+@Component
+@Slf4j
+public class BrowserLogCapture {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String RESOURCE_TIMING_SCRIPT = "return performance.getEntriesByType('resource')"
+            + ".slice(-arguments[0]).map(e => [e.initiatorType, String(e.responseStatus || ''), e.name,"
+            + " Math.round(e.duration)]);";
+
+    private final Map<WebDriver, SessionLog> sessions = new ConcurrentHashMap<>();
+
+    @Value("${browser.log.capture:true}")
+    private boolean enabled;
+
+    @Value("${browser.log.capture.size:200}")
+    private int size;
+
+    @Value("${browser.log.capture.network:true}")
+    private boolean network;
+
+    /**
+     * Starts capturing the logs of a session for a new scenario, discarding what the previous scenario left.
+     *
+     * @param driver the {@link WebDriver}
+     */
+    public void begin(WebDriver driver) {
+        if (enabled) {
+            sessions.computeIfAbsent(driver, this::open).clear();
+        }
+    }
+
+    /**
+     * Attaches the captured logs of a session to the report of a failed scenario.
+     *
+     * @param context the {@link ScenarioContext}
+     * @param driver  the {@link WebDriver}
+     */
+    public void attach(ScenarioContext context, WebDriver driver) {
+        if (!enabled || context.getScenario() == null) {
+            return;
+        }
+        SessionLog sessionLog = sessions.get(driver);
+        if (sessionLog == null) {
+            sessionLog = new SessionLog(size, null);
+        }
+        if (sessionLog.devTools == null) {
+            readFallback(driver, sessionLog);
+        }
+        try {
+            context.attach(MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(sessionLog.toReport()),
+                    "application/json", "Browser log");
+        } catch (JsonProcessingException e) {
+            log.warn("BrowserLogCapture:attach - Could not attach the browser log - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops capturing the logs of a session that is being destroyed.
+     *
+     * @param driver the {@link WebDriver}
+     */
+    public void release(WebDriver driver) {
+        SessionLog sessionLog = sessions.remove(driver);
+        if (sessionLog != null && sessionLog.devTools != null) {
+            try {
+                sessionLog.devTools.clearListeners();
+            } catch (RuntimeException e) {
+                log.debug("BrowserLogCapture:release - Could not clear the DevTools listeners - " + e.getMessage());
+            }
+        }
+    }
+
+    private SessionLog open(WebDriver driver) {
+        if (!(driver instanceof HasDevTools hasDevTools)) {
+            return new SessionLog(size, null);
+        }
+        try {
+            DevTools devTools = hasDevTools.getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            SessionLog sessionLog = new SessionLog(size, devTools);
+            devTools.addListener(event("Runtime.consoleAPICalled"), sessionLog::onConsole);
+            devTools.addListener(event("Runtime.exceptionThrown"), sessionLog::onException);
+            devTools.addListener(event("Log.entryAdded"), sessionLog::onLogEntry);
+            devTools.send(new Command<>("Runtime.enable", Map.of()));
+            devTools.send(new Command<>("Log.enable", Map.of()));
+            if (network) {
+                devTools.addListener(event("Network.requestWillBeSent"), sessionLog::onRequest);
+                devTools.addListener(event("Network.responseReceived"), sessionLog::onResponse);
+                devTools.addListener(event("Network.loadingFailed"), sessionLog::onFailure);
+                devTools.send(new Command<>("Network.enable", Map.of()));
+            }
+            return sessionLog;
+        } catch (RuntimeException e) {
+            log.info("BrowserLogCapture:begin - No DevTools connection, browser logs will be read on failure - "
+                    + e.getMessage());
+            return new SessionLog(size, null);
+        }
+    }
+
+    private void readFallback(WebDriver driver, SessionLog sessionLog) {
+        sessionLog.clear();
+        try {
+            List<LogEntry> entries = driver.manage().logs().get(LogType.BROWSER).getAll();
+            entries.subList(Math.max(0, entries.size() - size), entries.size()).forEach(entry ->
+                    sessionLog.console.add(new BrowserLogEntry(entry.getTimestamp(), "log",
+                            entry.getLevel().getName(), entry.getMessage())));
+        } catch (RuntimeException e) {
+            log.debug("BrowserLogCapture:attach - The driver does not provide a browser log - " + e.getMessage());
+        }
+        if (!network || !(driver instanceof JavascriptExecutor javascriptExecutor)) {
+            return;
+        }
+        try {
+            Object resources = javascriptExecutor.executeScript(RESOURCE_TIMING_SCRIPT, size);
+            if (resources instanceof List<?> list) {
+                long now = System.currentTimeMillis();
+                list.stream()
+                        .filter(List.class::isInstance)
+                        .map(List.class::cast)
+                        .forEach(resource -> sessionLog.network.add(new BrowserLogEntry(now, "resource-timing",
+                                String.valueOf(resource.get(1)),
+                                resource.get(0) + " " + resource.get(2) + " " + resource.get(3) + "ms")));
+            }
+        } catch (RuntimeException e) {
+            log.debug("BrowserLogCapture:attach - Could not read the resource timing entries - " + e.getMessage());
+        }
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> child(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Map<?, ?> child ? (Map<String, Object>) child : Map.of();
+    }
+
+    /**
+     * The buffers of one session.
+     */
+    private static final class SessionLog {
+
+        private final RingBuffer<BrowserLogEntry> console;
+
+        private final RingBuffer<BrowserLogEntry> network;
+
+        private final Map<Object, String> pending;
+
+        private final DevTools devTools;
+
+        private SessionLog(int capacity, DevTools devTools) {
+            this.console = new RingBuffer<>(capacity);
+            this.network = new RingBuffer<>(capacity);
+            this.pending = new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, String> eldest) {
+                    return size() > capacity;
+                }
+            };
+            this.devTools = devTools;
+        }
+
+        private void onConsole(Map<String, Object> params) {
+            Object args = params.get("args");
+            String message = args instanceof List<?> list ? list.stream()
+                    .filter(Map.class::isInstance)
+                    .map(arg -> {
+                        Map<?, ?> remoteObject = (Map<?, ?>) arg;
+                        Object value = remoteObject.containsKey("value")
+                                ? remoteObject.get("value") : remoteObject.get("description");
+                        return String.valueOf(value == null ? remoteObject.get("type") : value);
+                    })
+                    .collect(Collectors.joining(" ")) : "";
+            console.add(new BrowserLogEntry(System.currentTimeMillis(), "console",
+                    String.valueOf(params.get("type")), message));
+        }
+
+        private void onException(Map<String, Object> params) {
+            Map<String, Object> details = child(params, "exceptionDetails");
+            Object description = child(details, "exception").get("description");
+            console.add(new BrowserLogEntry(System.currentTimeMillis(), "exception", "error",
+                    String.valueOf(description == null ? details.get("text") : description)));
+        }
+
+        private void onLogEntry(Map<String, Object> params) {
+            Map<String, Object> entry = child(params, "entry");
+            Object url = entry.get("url");
+            console.add(new BrowserLogEntry(System.currentTimeMillis(), "log:" + entry.get("source"),
+                    String.valueOf(entry.get("level")), entry.get("text") + (url == null ? "" : " (" + url + ")")));
+        }
+
+        private void onRequest(Map<String, Object> params) {
+            Map<String, Object> request = child(params, "request");
+            synchronized (pending) {
+                pending.put(params.get("requestId"), request.get("method") + " " + request.get("url"));
+            }
+        }
+
+        private void onResponse(Map<String, Object> params) {
+            Map<String, Object> response = child(params, "response");
+            String request;
+            synchronized (pending) {
+                request = pending.remove(params.get("requestId"));
+            }
+            network.add(new BrowserLogEntry(System.currentTimeMillis(), "network",
+                    String.valueOf(response.get("status")),
+                    Objects.requireNonNullElse(request, String.valueOf(response.get("url"))) + " "
+                            + params.get("type") + " " + response.get("mimeType")));
+        }
+
+        private void onFailure(Map<String, Object> params) {
+            String request;
+            synchronized (pending) {
+                request = pending.remove(params.get("requestId"));
+            }
+            network.add(new BrowserLogEntry(System.currentTimeMillis(), "network", "failed",
+                    Objects.requireNonNullElse(request, "request " + params.get("requestId")) + " "
+                            + params.get("type") + " " + params.get("errorText")));
+        }
+
+        private void clear() {
+            console.clear();
+            network.clear();
+            synchronized (pending) {
+                pending.clear();
+            }
+        }
+
+        private Map<String, Object> toReport() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("source", devTools == null ? "fallback" : "devtools");
+            report.put("console", console.snapshot());
+            report.put("consoleDropped", console.getDropped());
+            report.put("network", network.snapshot());
+            report.put("networkDropped", network.getDropped());
+            return report;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.follett.report.browserlog;
+
+/**
+ * A browser console or network event.
+ *
+ * @param timestamp the epoch milliseconds the event was received at
+ * @param source    where the entry comes from, e.g. {@code console}, {@code exception}, {@code log}, {@code network}
+ * @param level     the console level or the HTTP status
+ * @param message   the console text or the request summary
+ */
+public record BrowserLogEntry(long timestamp, String source, String level, String message) {
+}
@@ -0,0 +1,67 @@
+package com.follett.report.browserlog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RingBuffer keeps the last {@code capacity} elements added to it, overwriting the oldest one when full. Adding never
+ * allocates beyond the element itself.
+ *
+ * @param <T> the element type
+ */
+public final class RingBuffer<T> {
+
+    private final Object[] elements;
+
+    private int next;
+
+    private int size;
+
+    private long dropped;
+
+    public RingBuffer(int capacity) {
+        this.elements = new Object[Math.max(1, capacity)];
+    }
+
+    public synchronized void add(T element) {
+        if (size == elements.length) {
+            dropped++;
+        } else {
+            size++;
+        }
+        elements[next] = element;
+        next = (next + 1) % elements.length;
+    }
+
+    /**
+     * Copies the buffered elements, oldest first.
+     *
+     * @return the elements
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<T> snapshot() {
+        List<T> snapshot = new ArrayList<>(size);
+        int start = (next - size + elements.length) % elements.length;
+        for (int i = 0; i < size; i++) {
+            snapshot.add((T) elements[(start + i) % elements.length]);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets how many elements were overwritten since the last {@link #clear()}.
+     *
+     * @return the dropped element count
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(elements, null);
+        next = 0;
+        size = 0;
+        dropped = 0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.follett.report.pagetiming;
+
+/**
+ * The Navigation Timing and Paint Timing of one page load, in milliseconds from the start of the navigation.
+ *
+ * @param scenario               the name of the scenario that loaded the page
+ * @param url                    the page URL
+ * @param ttfbMs                 the time to the first byte of the response
+ * @param domContentLoadedMs     the end of {@code DOMContentLoaded}, {@code null} if it had not fired yet
+ * @param loadMs                 the end of {@code load}, {@code null} if it had not fired yet
+ * @param firstContentfulPaintMs the first contentful paint, {@code null} if the browser does not report it
+ */
+public record PageTiming(String scenario, String url, Long ttfbMs, Long domContentLoadedMs, Long loadMs,
+                         Long firstContentfulPaintMs) {
+}
@@ -0,0 +1,272 @@
+package com.follett.report.pagetiming;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.follett.context.ScenarioContext;
+import com.follett.metrics.DriverMetrics;
+import io.cucumber.java.Scenario;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * PageTimingRecorder turns the suites into a page-performance canary: with {@code page.timing.enabled=true} it reads
+ * the Navigation Timing and Paint Timing entries of every page a scenario loads and writes per-run aggregates when
+ * the run ends.
+ * <p/>
+ * A page is sampled once, right before the scenario navigates away from it and when the scenario ends, so pages
+ * reached by clicking a link are sampled too and the page has finished loading by then. The
+ * {@code LazyDriver} calls {@link #capture(WebDriver)} before every {@code get}, {@code navigate().to},
+ * {@code back}, {@code forward} and {@code refresh}.
+ * <p/>
+ * Pages are grouped by URL without query and fragment, numeric and UUID path segments being replaced by
+ * {@code {id}}. The p50 and p95 of TTFB, {@code DOMContentLoaded}, {@code load} and first contentful paint of every
+ * page are written to {@code page.timing.file} and compared with the baseline file {@code page.timing.baseline.file}:
+ * a percentile that is more than {@code page.timing.regression.tolerance} (a ratio) and
+ * {@code page.timing.regression.min.ms} above its baseline is logged and listed as a regression. With
+ * {@code page.timing.baseline.update=true} the aggregates of the run become the new baseline.
+ */
+@Component
+@Slf4j
+public class PageTimingRecorder {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final TypeReference<Map<String, Map<String, Map<String, Long>>>> PAGES_TYPE =
+            new TypeReference<>() {
+            };
+
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "/(\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})(?=/|$)");
+
+    private static final String TIMING_SCRIPT = "var n = performance.getEntriesByType('navigation')[0];"
+            + " if (!n || location.protocol.indexOf('http') !== 0) { return null; }"
+            + " var p = performance.getEntriesByName('first-contentful-paint')[0];"
+            + " var at = function (t) { return t > 0 ? Math.round(t - n.startTime) : -1; };"
+            + " return [String(performance.timeOrigin), location.href, at(n.responseStart),"
+            + " at(n.domContentLoadedEventEnd), at(n.loadEventEnd), p ? Math.round(p.startTime) : -1];";
+
+    private static final Map<String, Function<PageTiming, Long>> METRICS = new LinkedHashMap<>();
+
+    static {
+        METRICS.put("ttfb", PageTiming::ttfbMs);
+        METRICS.put("domContentLoaded", PageTiming::domContentLoadedMs);
+        METRICS.put("load", PageTiming::loadMs);
+        METRICS.put("firstContentfulPaint", PageTiming::firstContentfulPaintMs);
+    }
+
+    private final Queue<PageTiming> samples = new ConcurrentLinkedQueue<>();
+
+    private final Set<String> sampled = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private DriverMetrics driverMetrics;
+
+    @Value("${page.timing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${page.timing.file:cucumber-reports/page-timing.json}")
+    private String timingFile;
+
+    @Value("${page.timing.baseline.file:page-timing-baseline.json}")
+    private String baselineFile;
+
+    @Value("${page.timing.baseline.update:false}")
+    private boolean updateBaseline;
+
+    @Value("${page.timing.regression.tolerance:0.2}")
+    private double tolerance;
+
+    @Value("${page.timing.regression.min.ms:100}")
+    private long minDeltaMs;
+
+    @Value("${page.timing.regression.min.samples:3}")
+    private int minSamples;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the listener the {@code LazyDriver} calls before every navigation.
+     *
+     * @return the listener, {@code null} when page timing is disabled
+     */
+    public Consumer<WebDriver> navigationListener() {
+        return enabled ? this::capture : null;
+    }
+
+    /**
+     * Samples the page currently loaded in a session, tagged with the scenario running on this thread. A page is
+     * only sampled once; non-HTTP pages and failures to read the timing are ignored.
+     *
+     * @param driver the real {@link WebDriver}
+     */
+    public void capture(WebDriver driver) {
+        if (!enabled || !(driver instanceof JavascriptExecutor javascriptExecutor)) {
+            return;
+        }
+        try {
+            if (!(javascriptExecutor.executeScript(TIMING_SCRIPT) instanceof List<?> timing)
+                    || !sampled.add(timing.get(0) + " " + timing.get(1))) {
+                return;
+            }
+            Scenario scenario = ScenarioContext.current().getScenario();
+            PageTiming pageTiming = new PageTiming(scenario == null ? null : scenario.getName(),
+                    String.valueOf(timing.get(1)), millis(timing.get(2)), millis(timing.get(3)), millis(timing.get(4)),
+                    millis(timing.get(5)));
+            samples.add(pageTiming);
+            METRICS.forEach((metric, value) -> {
+                Long ms = value.apply(pageTiming);
+                if (ms != null) {
+                    driverMetrics.record("page.timing", Duration.ofMillis(ms), "metric", metric);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.debug("PageTimingRecorder:capture - Could not read the page timing - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the aggregates of the run, compares them with the baseline and updates the baseline if asked to.
+     */
+    @PreDestroy
+    public void write() {
+        if (samples.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, Map<String, Long>>> pages = aggregate(List.copyOf(samples));
+        List<Map<String, Object>> regressions = compare(pages);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("samples", samples.size());
+        report.put("pages", pages);
+        report.put("regressions", regressions);
+        report.put("timings", List.copyOf(samples));
+        try {
+            writeAtomically(Paths.get(timingFile), report);
+            if (updateBaseline) {
+                writeAtomically(Paths.get(baselineFile), Map.of("pages", pages));
+                log.info("PageTimingRecorder:write - Updated the page timing baseline " + baselineFile);
+            }
+        } catch (IOException e) {
+            log.error("PageTimingRecorder:write - Could not write the page timing: " + e.getLocalizedMessage());
+        }
+    }
+
+    private static Map<String, Map<String, Map<String, Long>>> aggregate(List<PageTiming> timings) {
+        Map<String, List<PageTiming>> byPage = new TreeMap<>();
+        timings.forEach(timing -> byPage.computeIfAbsent(page(timing.url()), page -> new ArrayList<>()).add(timing));
+        Map<String, Map<String, Map<String, Long>>> pages = new TreeMap<>();
+        byPage.forEach((page, pageTimings) -> {
+            Map<String, Map<String, Long>> metrics = new LinkedHashMap<>();
+            METRICS.forEach((metric, value) -> {
+                long[] values = pageTimings.stream()
+                        .map(value)
+                        .filter(Objects::nonNull)
+                        .mapToLong(Long::longValue)
+                        .sorted()
+                        .toArray();
+                if (values.length > 0) {
+                    Map<String, Long> stats = new LinkedHashMap<>();
+                    stats.put("count", (long) values.length);
+                    stats.put("p50", percentile(values, 0.50));
+                    stats.put("p95", percentile(values, 0.95));
+                    metrics.put(metric, stats);
+                }
+            });
+            pages.put(page, metrics);
+        });
+        return pages;
+    }
+
+    private List<Map<String, Object>> compare(Map<String, Map<String, Map<String, Long>>> pages) {
+        List<Map<String, Object>> regressions = new ArrayList<>();
+        Path file = Paths.get(baselineFile);
+        if (!Files.exists(file)) {
+            return regressions;
+        }
+        Map<String, Map<String, Map<String, Long>>> baseline;
+        try {
+            baseline = MAPPER.convertValue(MAPPER.readTree(file.toFile()).path("pages"), PAGES_TYPE);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("PageTimingRecorder:write - Could not read the page timing baseline " + file + " - "
+                    + e.getMessage());
+            return regressions;
+        }
+        pages.forEach((page, metrics) -> metrics.forEach((metric, stats) -> {
+            Map<String, Long> base = baseline.getOrDefault(page, Map.of()).get(metric);
+            if (base == null || stats.get("count") < minSamples) {
+                return;
+            }
+            for (String percentile : List.of("p50", "p95")) {
+                Long before = base.get(percentile);
+                long now = stats.get(percentile);
+                if (before != null && now > before * (1 + tolerance) && now - before >= minDeltaMs) {
+                    Map<String, Object> regression = new LinkedHashMap<>();
+                    regression.put("page", page);
+                    regression.put("metric", metric);
+                    regression.put("percentile", percentile);
+                    regression.put("baselineMs", before);
+                    regression.put("currentMs", now);
+                    regressions.add(regression);
+                    driverMetrics.increment("page.timing.regression", "metric", metric);
+                    log.warn(String.format("PageTimingRecorder:write - %s %s %s regressed from %dms to %dms",
+                            page, metric, percentile, before, now));
+                }
+            }
+        }));
+        return regressions;
+    }
+
+    private static String page(String url) {
+        try {
+            URI uri = URI.create(url);
+            String path = uri.getPath() == null || uri.getPath().isEmpty() ? "/" : uri.getPath();
+            return uri.getScheme() + "://" + uri.getAuthority() + ID_SEGMENT.matcher(path).replaceAll("/{id}");
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static Long millis(Object value) {
+        return value instanceof Number number && number.longValue() >= 0 ? number.longValue() : null;
+    }
+
+    private static void writeAtomically(Path file, Object value) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        MAPPER.writeValue(tmp.toFile(), value);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
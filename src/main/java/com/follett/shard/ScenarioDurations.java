@@ -0,0 +1,86 @@
+package com.follett.shard;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ScenarioDurations reads and writes the shard history file: the last known duration in milliseconds of every
+ * scenario, keyed by {@code <feature path>:<line>}, the line being the one Cucumber reports for the scenario: the
+ * {@code Scenario:} line, or the example row of a scenario outline. Scenario names are not used, since outline names
+ * are only known once their placeholders are filled in.
+ */
+public final class ScenarioDurations {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final TypeReference<TreeMap<String, Long>> HISTORY_TYPE = new TypeReference<>() {
+    };
+
+    private static final String FEATURES_ROOT = "/features/";
+
+    private ScenarioDurations() {
+    }
+
+    /**
+     * Builds the history key of a scenario.
+     *
+     * @param featurePath the feature file path relative to the features root, with {@code /} separators
+     * @param line        the line of the scenario or example row
+     * @return the key
+     */
+    public static String key(String featurePath, int line) {
+        return featurePath + ":" + line;
+    }
+
+    /**
+     * Normalizes a feature URI (e.g. {@code classpath:features/pos/sale.feature} or
+     * {@code file:/builds/qa/src/test/resources/features/pos/sale.feature}) to its path under the features root.
+     *
+     * @param uri the feature URI
+     * @return the path under the {@code features} directory, e.g. {@code pos/sale.feature}
+     */
+    public static String featurePath(String uri) {
+        String path = "/" + uri.replace('\\', '/').replaceFirst("^(classpath|file):/*", "");
+        int root = path.indexOf(FEATURES_ROOT);
+        if (root >= 0) {
+            return path.substring(root + FEATURES_ROOT.length());
+        }
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Reads the history file.
+     *
+     * @param file the history file
+     * @return the durations by key, empty if the file does not exist
+     * @throws IOException if the file cannot be read
+     */
+    public static Map<String, Long> read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new TreeMap<>();
+        }
+        return MAPPER.readValue(file.toFile(), HISTORY_TYPE);
+    }
+
+    /**
+     * Writes the history file atomically.
+     *
+     * @param file      the history file
+     * @param durations the durations by key
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, Map<String, Long> durations) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        MAPPER.writeValue(tmp.toFile(), new TreeMap<>(durations));
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,55 @@
+package com.follett.shard;
+
+import io.cucumber.java.Scenario;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ShardHistoryRecorder collects the duration of every scenario of the run and merges them into the shard history
+ * file ({@code shard.history.file}) when the run ends, so the {@link ShardPlanner} can balance the next run.
+ * Every example row of a scenario outline is recorded on its own, under the line of its row.
+ */
+@Component
+@Slf4j
+public class ShardHistoryRecorder {
+
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+
+    @Value("${shard.history.file:shard-history.json}")
+    private String historyFile;
+
+    /**
+     * Records the duration of a finished scenario.
+     *
+     * @param scenario the {@link Scenario}
+     * @param elapsed  how long it took
+     */
+    public void record(Scenario scenario, Duration elapsed) {
+        String key = ScenarioDurations.key(ScenarioDurations.featurePath(scenario.getUri().toString()),
+                scenario.getLine());
+        durations.put(key, elapsed.toMillis());
+    }
+
+    @PreDestroy
+    public void write() {
+        if (durations.isEmpty()) {
+            return;
+        }
+        Path file = Paths.get(historyFile);
+        try {
+            Map<String, Long> history = ScenarioDurations.read(file);
+            history.putAll(durations);
+            ScenarioDurations.write(file, history);
+        } catch (IOException e) {
+            log.error("ShardHistoryRecorder:write - Could not write the shard history: " + e.getLocalizedMessage());
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.follett.shard;
+
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ShardPlanner splits the scenarios under the features directory into N shards of similar total duration and writes
+ * the selected shard as a Cucumber rerun file, to be run with {@code -Dcucumber.features=@<shard file>}. Every example
+ * row of a scenario outline is planned on its own, and only the scenarios matching the run's tag expression are
+ * planned, so the shards are balanced on what will actually run.
+ * <p/>
+ * Durations come from the shard history file written by {@link ShardHistoryRecorder}; scenarios without history
+ * weigh the average known duration. Scenarios are assigned longest first, each to the currently lightest shard
+ * (longest-processing-time-first). Configuration is read from system properties:
+ * <ul>
+ *     <li>{@code shard.total} - the number of shards (default 1)</li>
+ *     <li>{@code shard.index} - the 0-based shard to write (default 0)</li>
+ *     <li>{@code shard.features} - the features directory (default {@code src/test/resources/features})</li>
+ *     <li>{@code shard.tags} - the tag expression selecting the scenarios (default: {@code cucumber.filter.tags})
+ *     </li>
+ *     <li>{@code shard.history.file} - the history file (default {@code shard-history.json})</li>
+ *     <li>{@code shard.output} - the rerun file to write (default {@code shard.txt}, outside of {@code target} so it
+ *     survives {@code mvn clean})</li>
+ * </ul>
+ */
+public final class ShardPlanner {
+
+    private static final List<String> SCENARIO_KEYWORDS = List.of("Scenario:", "Example:");
+
+    private static final List<String> OUTLINE_KEYWORDS = List.of("Scenario Outline:", "Scenario Template:");
+
+    private static final List<String> EXAMPLES_KEYWORDS = List.of("Examples:", "Scenarios:");
+
+    private ShardPlanner() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int total = Integer.getInteger("shard.total", 1);
+        int index = Integer.getInteger("shard.index", 0);
+        if (total < 1 || index < 0 || index >= total) {
+            throw new IllegalArgumentException(String.format(
+                    "ShardPlanner::main - shard.index %d is out of range for shard.total %d", index, total));
+        }
+        Path features = Paths.get(System.getProperty("shard.features", "src/test/resources/features"));
+        Path history = Paths.get(System.getProperty("shard.history.file", "shard-history.json"));
+        Path output = Paths.get(System.getProperty("shard.output", "shard.txt"));
+
+        String tags = System.getProperty("shard.tags", System.getProperty("cucumber.filter.tags", ""));
+
+        List<PlannedScenario> scenarios = scan(features, tags);
+        List<List<PlannedScenario>> shards = plan(scenarios, ScenarioDurations.read(history), total);
+        List<PlannedScenario> selected = shards.get(index);
+
+        if (output.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+        }
+        Files.writeString(output, toRerun(selected), StandardCharsets.UTF_8);
+
+        for (int shard = 0; shard < shards.size(); shard++) {
+            System.out.printf("shard %d: %d scenarios, ~%d ms%s%n", shard, shards.get(shard).size(),
+                    shards.get(shard).stream().mapToLong(PlannedScenario::weight).sum(),
+                    shard == index ? " (selected)" : "");
+        }
+    }
+
+    /**
+     * Splits the scenarios into balanced shards.
+     *
+     * @param scenarios the scenarios
+     * @param history   the known durations by key
+     * @param total     the number of shards
+     * @return the shards, in index order
+     */
+    public static List<List<PlannedScenario>> plan(List<PlannedScenario> scenarios, Map<String, Long> history,
+                                                   int total) {
+        long fallback = Math.max(1, (long) history.values().stream().mapToLong(Long::longValue).average().orElse(1));
+        List<PlannedScenario> weighted = scenarios.stream()
+                .map(scenario -> scenario.withWeight(history.getOrDefault(scenario.key(), fallback)))
+                .sorted(Comparator.comparingLong(PlannedScenario::weight).reversed()
+                        .thenComparing(PlannedScenario::key))
+                .toList();
+
+        List<List<PlannedScenario>> shards = new ArrayList<>();
+        PriorityQueue<Bin> bins = new PriorityQueue<>(Comparator.comparingLong(Bin::load).thenComparingInt(Bin::index));
+        for (int shard = 0; shard < total; shard++) {
+            shards.add(new ArrayList<>());
+            bins.add(new Bin(shard, 0));
+        }
+        for (PlannedScenario scenario : weighted) {
+            Bin lightest = bins.poll();
+            shards.get(lightest.index()).add(scenario);
+            bins.add(new Bin(lightest.index(), lightest.load() + scenario.weight()));
+        }
+        return shards;
+    }
+
+    /**
+     * Lists every scenario of the feature files under a directory, each example row of a scenario outline being a
+     * scenario of its own.
+     *
+     * @param features the features directory
+     * @param tags     the Cucumber tag expression the scenarios must match, blank for every scenario
+     * @return the scenarios
+     * @throws IOException if the files cannot be read
+     */
+    public static List<PlannedScenario> scan(Path features, String tags) throws IOException {
+        Expression filter = tags == null || tags.isBlank() ? null : TagExpressionParser.parse(tags);
+        List<PlannedScenario> scenarios = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(features)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".feature")).sorted().toList()) {
+                String featurePath = ScenarioDurations.featurePath(file.toAbsolutePath().toString());
+                List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+                FeatureScanner scanner = new FeatureScanner();
+                for (int line = 0; line < lines.size(); line++) {
+                    List<String> pickleTags = scanner.next(lines.get(line).trim());
+                    if (pickleTags != null && (filter == null || filter.evaluate(pickleTags))) {
+                        scenarios.add(new PlannedScenario(file, line + 1,
+                                ScenarioDurations.key(featurePath, line + 1), 0));
+                    }
+                }
+            }
+        }
+        return scenarios;
+    }
+
+    private static String toRerun(List<PlannedScenario> scenarios) {
+        Map<String, List<Integer>> linesByFile = new TreeMap<>();
+        scenarios.forEach(scenario -> linesByFile
+                .computeIfAbsent(scenario.file().toString().replace('\\', '/'), file -> new ArrayList<>())
+                .add(scenario.line()));
+        return linesByFile.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + entry.getValue().stream().sorted().map(String::valueOf)
+                        .collect(Collectors.joining(":")))
+                .collect(Collectors.joining("\n", "", "\n"));
+    }
+
+    /**
+     * A scenario to plan.
+     *
+     * @param file   the feature file
+     * @param line   the line of the scenario keyword
+     * @param key    the history key
+     * @param weight the expected duration in milliseconds
+     */
+    public record PlannedScenario(Path file, int line, String key, long weight) {
+
+        private PlannedScenario withWeight(long weight) {
+            return new PlannedScenario(file, line, key, weight);
+        }
+    }
+
+    private record Bin(int index, long load) {
+    }
+
+    /**
+     * Reads a feature file line by line and tells which lines start a scenario Cucumber will run: plain scenarios
+     * and the data rows of outline examples, the lines Cucumber reports as {@code Scenario#getLine()}.
+     */
+    private static final class FeatureScanner {
+
+        private final List<String> pending = new ArrayList<>();
+
+        private List<String> featureTags = List.of();
+
+        private List<String> ruleTags = List.of();
+
+        private List<String> outlineTags;
+
+        private List<String> examplesTags;
+
+        private boolean header;
+
+        private String docString;
+
+        /**
+         * Reads the next line.
+         *
+         * @param text the trimmed line
+         * @return the tags of the scenario starting on the line, {@code null} if no scenario starts on it
+         */
+        private List<String> next(String text) {
+            if (docString != null) {
+                docString = text.startsWith(docString) ? null : docString;
+                return null;
+            }
+            if (text.startsWith("\"\"\"") || text.startsWith("```")) {
+                docString = text.substring(0, 3);
+                return null;
+            }
+            if (text.isEmpty() || text.startsWith("#")) {
+                return null;
+            }
+            if (text.startsWith("@")) {
+                for (String tag : text.split("\\s+#", 2)[0].split("\\s+")) {
+                    if (tag.startsWith("@")) {
+                        pending.add(tag);
+                    }
+                }
+                return null;
+            }
+            if (text.startsWith("|")) {
+                if (examplesTags == null) {
+                    return null;
+                }
+                if (header) {
+                    header = false;
+                    return null;
+                }
+                return concat(featureTags, ruleTags, outlineTags, examplesTags);
+            }
+            List<String> tags = List.copyOf(pending);
+            pending.clear();
+            if (text.startsWith("Feature:")) {
+                featureTags = tags;
+                ruleTags = List.of();
+                outlineTags = null;
+                examplesTags = null;
+            } else if (text.startsWith("Rule:")) {
+                ruleTags = tags;
+                outlineTags = null;
+                examplesTags = null;
+            } else if (startsWithAny(text, OUTLINE_KEYWORDS)) {
+                outlineTags = tags;
+                examplesTags = null;
+            } else if (outlineTags != null && startsWithAny(text, EXAMPLES_KEYWORDS)) {
+                examplesTags = tags;
+                header = true;
+            } else if (startsWithAny(text, SCENARIO_KEYWORDS)) {
+                outlineTags = null;
+                examplesTags = null;
+                return concat(featureTags, ruleTags, tags);
+            }
+            return null;
+        }
+
+        private static boolean startsWithAny(String text, List<String> keywords) {
+            return keywords.stream().anyMatch(text::startsWith);
+        }
+
+        @SafeVarargs
+        private static List<String> concat(List<String>... tags) {
+            return Stream.of(tags).flatMap(List::stream).toList();
+        }
+    }
+}
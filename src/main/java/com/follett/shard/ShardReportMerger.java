@@ -0,0 +1,97 @@
+package com.follett.shard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * ShardReportMerger combines the results of the shards of a run into a single report. Every shard directory under
+ * {@code shard.dir} (default {@code shards}) is expected to hold the {@code cucumber-reports} and
+ * {@code allure-reports} directories and the shard history file of one shard.
+ * <ul>
+ *     <li>the Cucumber JSON reports ({@code shard.cucumber.json}, default {@code cucumber-reports/cucumber.json}) are
+ *     merged into one, joining the elements of features that ran on several shards</li>
+ *     <li>the Allure results, which are uniquely named, are copied into one {@code allure-reports} directory</li>
+ *     <li>the shard histories are merged into {@code shard.history.file}, for the planner of the next run</li>
+ * </ul>
+ */
+public final class ShardReportMerger {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ShardReportMerger() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path shardDir = Paths.get(System.getProperty("shard.dir", "shards"));
+        String cucumberJson = System.getProperty("shard.cucumber.json", "cucumber-reports/cucumber.json");
+        String allureDir = System.getProperty("shard.allure.dir", "allure-reports");
+        String historyFile = System.getProperty("shard.history.file", "shard-history.json");
+
+        List<Path> shards;
+        try (Stream<Path> children = Files.list(shardDir)) {
+            shards = children.filter(Files::isDirectory).sorted().toList();
+        }
+
+        Map<String, ObjectNode> features = new LinkedHashMap<>();
+        Map<String, Long> history = new TreeMap<>(ScenarioDurations.read(Paths.get(historyFile)));
+        for (Path shard : shards) {
+            mergeCucumber(shard.resolve(cucumberJson), features);
+            copyAllure(shard.resolve(allureDir), Paths.get(allureDir));
+            history.putAll(ScenarioDurations.read(shard.resolve(historyFile)));
+        }
+
+        Path merged = Paths.get(cucumberJson);
+        if (merged.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(merged.toAbsolutePath().getParent());
+        }
+        ArrayNode report = MAPPER.createArrayNode();
+        features.values().forEach(report::add);
+        MAPPER.writeValue(merged.toFile(), report);
+        if (!history.isEmpty()) {
+            ScenarioDurations.write(Paths.get(historyFile), history);
+        }
+        System.out.printf("merged %d shards: %d features%n", shards.size(), features.size());
+    }
+
+    private static void mergeCucumber(Path file, Map<String, ObjectNode> features) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        JsonNode report = MAPPER.readTree(file.toFile());
+        for (JsonNode feature : report) {
+            String uri = feature.path("uri").asText(feature.path("id").asText());
+            ObjectNode existing = features.get(uri);
+            if (existing == null) {
+                features.put(uri, (ObjectNode) feature.deepCopy());
+            } else if (feature.has("elements")) {
+                ArrayNode elements = existing.has("elements")
+                        ? (ArrayNode) existing.get("elements") : existing.putArray("elements");
+                elements.addAll((ArrayNode) feature.get("elements"));
+            }
+        }
+    }
+
+    private static void copyAllure(Path source, Path target) throws IOException {
+        if (!Files.isDirectory(source)) {
+            return;
+        }
+        Files.createDirectories(target);
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.copy(file, target.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+}
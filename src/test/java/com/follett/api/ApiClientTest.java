@@ -0,0 +1,127 @@
+package com.follett.api;
+
+import com.follett.context.ScenarioContext;
+import com.follett.metrics.DriverMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class ApiClientTest {
+
+    private static final int THREADS = 2;
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private ApiClient apiClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/orders/1", exchange -> respond(exchange, 200, "{\"id\":1,\"name\":\"first\"}"));
+        server.createContext("/orders", exchange -> respond(exchange, 201,
+                new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+        server.createContext("/missing", exchange -> respond(exchange, 404, "no such order"));
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{\"id\":2,\"name\":\"" + "x".repeat(64 * 1024) + "\"}");
+        });
+        server.start();
+
+        apiClient = new ApiClient();
+        ReflectionTestUtils.setField(apiClient, "driverMetrics", new DriverMetrics());
+        ReflectionTestUtils.setField(apiClient, "baseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(apiClient, "connectTimeout", 5L);
+        ReflectionTestUtils.setField(apiClient, "requestTimeout", 10L);
+        ReflectionTestUtils.setField(apiClient, "virtualThreads", false);
+        ReflectionTestUtils.setField(apiClient, "threads", THREADS);
+        apiClient.start();
+        ScenarioContext.begin(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ScenarioContext.end();
+        apiClient.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void parsesTheResponseBody() {
+        ApiResponse<Order> response = apiClient.send(ApiRequest.get("/orders/1"), Order.class);
+
+        assertThat(response.isSuccessful()).isTrue();
+        assertThat(response.body()).isEqualTo(new Order(1, "first"));
+    }
+
+    @Test
+    void serializesTheRequestBody() {
+        ApiResponse<Order> response = apiClient.send(ApiRequest.post("orders", new Order(7, "new")), Order.class);
+
+        assertThat(response.status()).isEqualTo(201);
+        assertThat(response.body()).isEqualTo(new Order(7, "new"));
+    }
+
+    @Test
+    void keepsTheErrorBodyOfFailedCalls() {
+        ApiResponse<Order> response = apiClient.send(ApiRequest.get("/missing"), Order.class);
+
+        assertThat(response.isSuccessful()).isFalse();
+        assertThat(response.body()).isNull();
+        assertThat(response.errorBody()).isEqualTo("no such order");
+    }
+
+    @Test
+    void recordsEveryCallInTheScenarioContext() {
+        apiClient.send(ApiRequest.get("/orders/1"), Order.class);
+        apiClient.send(ApiRequest.get("/missing"), Order.class);
+
+        assertThat(ScenarioContext.current().getApiCalls())
+                .extracting(ApiCall::status)
+                .containsExactly(200, 404);
+    }
+
+    @Test
+    void fansOutMoreRequestsThanThreads() {
+        List<ApiRequest> requests = IntStream.range(0, THREADS * 16).mapToObj(i -> ApiRequest.get("/slow")).toList();
+
+        List<ApiResponse<Order>> responses = assertTimeoutPreemptively(Duration.ofSeconds(20),
+                () -> apiClient.sendAll(requests, Order.class));
+
+        assertThat(responses).hasSize(requests.size()).allMatch(ApiResponse::isSuccessful);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    record Order(int id, String name) {
+    }
+}
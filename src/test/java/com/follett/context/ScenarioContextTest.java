@@ -0,0 +1,151 @@
+package com.follett.context;
+
+import com.follett.api.ApiCall;
+import com.follett.driver.Driver;
+import io.cucumber.core.backend.TestCaseState;
+import io.cucumber.java.Scenario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class ScenarioContextTest {
+
+    private static final int THREADS = 16;
+
+    private static final int SCENARIOS_PER_THREAD = 200;
+
+    private static final int ATTACHMENTS_PER_SCENARIO = 5;
+
+    @AfterEach
+    void tearDown() {
+        ScenarioContext.end();
+    }
+
+    @Test
+    void keepsParallelScenariosIsolated() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> runs = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                int threadIndex = thread;
+                runs.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < SCENARIOS_PER_THREAD; i++) {
+                        runScenario("scenario-" + threadIndex + "-" + i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> run : runs) {
+                run.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void endDiscardsTheContext() {
+        ScenarioContext context = ScenarioContext.begin(scenario("first", new ArrayList<>()));
+        context.attach(new byte[]{1}, "text/plain", "first");
+
+        ScenarioContext.end();
+
+        assertThat(ScenarioContext.current()).isNotSameAs(context);
+        assertThat(ScenarioContext.current().getScenario()).isNull();
+        assertThat(ScenarioContext.current().getAttachments()).isEmpty();
+        assertThatIllegalStateException().isThrownBy(() ->
+                ScenarioContext.current().attach(new byte[]{1}, "text/plain", "orphan"));
+    }
+
+    @Test
+    void attachesPendingAttachmentsOnceTheyAreReady() {
+        List<String> attached = new ArrayList<>();
+        ScenarioContext context = ScenarioContext.begin(scenario("pending", attached));
+        CompletableFuture<byte[]> later = new CompletableFuture<>();
+        context.attachLater(later, "image/jpeg", "screenshot");
+        context.attachLater(CompletableFuture.completedFuture(null), "image/jpeg", "dropped");
+        context.attachLater(CompletableFuture.failedFuture(new IllegalStateException("broken")), "image/jpeg",
+                "broken");
+        context.attachLater(new CompletableFuture<>(), "image/jpeg", "stuck");
+        later.complete("image".getBytes(StandardCharsets.UTF_8));
+
+        context.awaitAttachments(Duration.ofMillis(200));
+
+        assertThat(attached).containsExactly("image");
+        assertThat(context.getAttachments()).extracting(ScenarioContext.Attachment::name).containsExactly("screenshot");
+    }
+
+    private static void runScenario(String name) {
+        List<String> attached = Collections.synchronizedList(new ArrayList<>());
+        ScenarioContext context = ScenarioContext.begin(scenario(name, attached));
+        Driver driver = new Driver(name, null, null);
+        ScenarioContext.current().setDriver(driver);
+        for (int i = 0; i < ATTACHMENTS_PER_SCENARIO; i++) {
+            Thread.yield();
+            assertThat(ScenarioContext.current().getDriver()).isSameAs(driver);
+            ScenarioContext.current().attach(name.getBytes(StandardCharsets.UTF_8), "text/plain", name);
+            ScenarioContext.current().recordApiCall(new ApiCall("GET", "/" + name, 200, Duration.ZERO));
+        }
+
+        assertThat(ScenarioContext.current()).isSameAs(context);
+        assertThat(context.getScenario().getName()).isEqualTo(name);
+        assertThat(context.getDriver()).isSameAs(driver);
+        assertThat(context.getAttachments())
+                .hasSize(ATTACHMENTS_PER_SCENARIO)
+                .allMatch(attachment -> attachment.name().equals(name));
+        assertThat(context.getApiCalls())
+                .hasSize(ATTACHMENTS_PER_SCENARIO)
+                .allMatch(call -> call.uri().equals("/" + name));
+        assertThat(attached).hasSize(ATTACHMENTS_PER_SCENARIO).containsOnly(name);
+
+        ScenarioContext.end();
+        assertThat(ScenarioContext.current()).isNotSameAs(context);
+        assertThat(ScenarioContext.current().getDriver()).isNull();
+        assertThat(ScenarioContext.current().getAttachments()).isEmpty();
+        assertThat(ScenarioContext.current().getApiCalls()).isEmpty();
+        ScenarioContext.end();
+    }
+
+    private static Scenario scenario(String name, List<String> attached) {
+        TestCaseState state = (TestCaseState) Proxy.newProxyInstance(TestCaseState.class.getClassLoader(),
+                new Class<?>[]{TestCaseState.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getName", "getId" -> name;
+                    case "getUri" -> URI.create("classpath:features/context.feature");
+                    case "getLine" -> 1;
+                    case "getSourceTagNames" -> List.of();
+                    case "attach" -> {
+                        attached.add(new String((byte[]) args[0], StandardCharsets.UTF_8));
+                        yield null;
+                    }
+                    case "isFailed", "equals" -> false;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> null;
+                });
+        try {
+            Constructor<Scenario> constructor = Scenario.class.getDeclaredConstructor(TestCaseState.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(state);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("ScenarioContextTest::scenario - Could not create the scenario", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.follett.driver;
+
+import com.follett.driver.grid.GridTransport;
+import com.follett.driver.grid.StubGrid;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RemoteDriverBuilderTest {
+
+    private static final String NEW_SESSION =
+            "{\"value\":{\"sessionId\":\"s1\",\"capabilities\":{\"browserName\":\"chrome\"}}}";
+
+    private static final String SESSION_NOT_CREATED =
+            "{\"value\":{\"error\":\"session not created\",\"message\":\"No free slot\",\"stacktrace\":\"\"}}";
+
+    private final AtomicInteger newSessionRequests = new AtomicInteger();
+
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+
+    private StubGrid grid;
+
+    private GridTransport gridTransport;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        grid = new StubGrid();
+        grid.setSlots("chrome", 1, 0);
+        grid.handle("/session", exchange -> {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                return new Object[]{200, "{\"value\":null}"};
+            }
+            newSessionRequests.incrementAndGet();
+            return failuresLeft.getAndDecrement() > 0
+                    ? new Object[]{500, SESSION_NOT_CREATED}
+                    : new Object[]{200, NEW_SESSION};
+        });
+        gridTransport = new GridTransport(2, 5, 30, 3, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gridTransport.shutdown();
+        grid.close();
+    }
+
+    @Test
+    void createsTheSessionThroughTheSharedTransport() throws Exception {
+        WebDriver driver = builder().build();
+
+        assertThat(driver).isInstanceOf(RemoteWebDriver.class);
+        assertThat(((RemoteWebDriver) driver).getSessionId()).hasToString("s1");
+        assertThat(grid.hits("/status")).isEqualTo(1);
+        assertThat(newSessionRequests).hasValue(1);
+        driver.quit();
+    }
+
+    @Test
+    void retriesAFailedSessionCreation() throws Exception {
+        failuresLeft.set(2);
+
+        WebDriver driver = builder().build();
+
+        assertThat(((RemoteWebDriver) driver).getSessionId()).hasToString("s1");
+        assertThat(newSessionRequests).hasValue(3);
+        assertThat(grid.hits("/status")).isEqualTo(3);
+        driver.quit();
+    }
+
+    @Test
+    void givesUpAfterTheLastAttempt() {
+        failuresLeft.set(3);
+
+        assertThatThrownBy(() -> builder().build()).isInstanceOf(WebDriverException.class);
+        assertThat(newSessionRequests).hasValue(3);
+    }
+
+    @Test
+    void doesNotRequestASessionFromAGridThatIsNotReady() {
+        grid.setFailing(true);
+
+        assertThatThrownBy(() -> builder().build())
+                .isInstanceOf(WebDriverException.class)
+                .hasMessageContaining("is not ready");
+        assertThat(grid.hits("/status")).isEqualTo(3);
+        assertThat(newSessionRequests).hasValue(0);
+    }
+
+    private RemoteDriverBuilder builder() {
+        return new RemoteDriverBuilder()
+                .loadCapabilities("chrome")
+                .setRemoteURL(grid.getUrl())
+                .setGridTransport(gridTransport);
+    }
+}
@@ -0,0 +1,64 @@
+package com.follett.driver.factory;
+
+import com.follett.metrics.DriverMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class DriverBinaryResolverTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private DriverBinaryResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new DriverBinaryResolver();
+        ReflectionTestUtils.setField(resolver, "driverMetrics", new DriverMetrics());
+        ReflectionTestUtils.setField(resolver, "cacheDir", cacheDir.toString());
+        ReflectionTestUtils.setField(resolver, "cacheTtlHours", 24L);
+        ReflectionTestUtils.setField(resolver, "offline", true);
+    }
+
+    @Test
+    void picksTheHighestVersionNumerically() throws IOException {
+        binary("chromedriver/linux64/9.0.1/chromedriver", true);
+        Path newest = binary("chromedriver/linux64/118.0.5993.70/chromedriver", true);
+        binary("chromedriver/linux64/118.0.999.1/chromedriver", true);
+
+        assertThat(resolver.resolve("chrome")).isEqualTo(newest);
+    }
+
+    @Test
+    void ignoresFilesThatAreNotTheExecutableBinary() throws IOException {
+        Path binary = binary("chromedriver/linux64/100.0/chromedriver", true);
+        binary("chromedriver/linux64/200.0/chromedriver.zip", true);
+        binary("chromedriver/linux64/200.0/chromedriver-old", true);
+        binary("chromedriver/linux64/300.0/chromedriver", false);
+
+        assertThat(resolver.resolve("chrome")).isEqualTo(binary);
+    }
+
+    @Test
+    void failsWhenNoBinaryIsCached() throws IOException {
+        binary("geckodriver/linux64/0.33.0/geckodriver", true);
+
+        assertThatIllegalStateException().isThrownBy(() -> resolver.resolve("chrome"));
+    }
+
+    private Path binary(String relativePath, boolean executable) throws IOException {
+        Path path = cacheDir.resolve(relativePath);
+        Files.createDirectories(path.getParent());
+        Files.write(path, new byte[]{0});
+        assertThat(path.toFile().setExecutable(executable)).isTrue();
+        return path;
+    }
+}
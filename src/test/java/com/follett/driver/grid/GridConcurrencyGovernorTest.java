@@ -0,0 +1,92 @@
+package com.follett.driver.grid;
+
+import com.follett.metrics.DriverMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriverException;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class GridConcurrencyGovernorTest {
+
+    private StubGrid grid;
+
+    private GridConcurrencyGovernor governor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        grid = new StubGrid();
+        governor = new GridConcurrencyGovernor();
+        ReflectionTestUtils.setField(governor, "gridTransport", new GridTransport(2, 5, 30, 1, 10));
+        ReflectionTestUtils.setField(governor, "driverMetrics", new DriverMetrics());
+        ReflectionTestUtils.setField(governor, "remoteURL", grid.getUrl());
+        ReflectionTestUtils.setField(governor, "enabled", true);
+        ReflectionTestUtils.setField(governor, "pollSeconds", 3600L);
+        ReflectionTestUtils.setField(governor, "maxWaitSeconds", 1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        governor.shutdown();
+        grid.close();
+    }
+
+    @Test
+    void limitsSessionsToTheFreeSlots() throws Exception {
+        grid.setSlots("chrome", 2, 1);
+
+        governor.acquire("chrome");
+        governor.acquire("chrome");
+
+        assertThatThrownBy(() -> governor.acquire("chrome")).isInstanceOf(WebDriverException.class);
+    }
+
+    @Test
+    void givesBackThePermitOfAFailedSession() throws Exception {
+        grid.setSlots("chrome", 1, 0);
+
+        governor.acquire("chrome");
+        governor.release("chrome");
+
+        assertTimeoutPreemptively(Duration.ofMillis(500), () -> governor.acquire("chrome"));
+    }
+
+    @Test
+    void followsTheGridWhenSlotsFreeUp() throws Exception {
+        grid.setSlots("firefox", 0, 2);
+        assertThatThrownBy(() -> governor.acquire("firefox")).isInstanceOf(WebDriverException.class);
+
+        grid.setSlots("firefox", 1, 1);
+        governor.poll();
+
+        assertTimeoutPreemptively(Duration.ofMillis(500), () -> governor.acquire("firefox"));
+    }
+
+    @Test
+    void doesNotLimitABrowserWhenTheFirstStatusCannotBeRead() {
+        grid.setFailing(true);
+
+        assertTimeoutPreemptively(Duration.ofMillis(500), () -> {
+            for (int i = 0; i < 10; i++) {
+                governor.acquire("chrome");
+            }
+        });
+        assertThat(grid.hits("/status")).isPositive();
+    }
+
+    @Test
+    void keepsTheLastKnownLimitWhenTheStatusCannotBeRead() throws Exception {
+        grid.setSlots("chrome", 1, 0);
+        governor.acquire("chrome");
+
+        grid.setFailing(true);
+        governor.poll();
+
+        assertThatThrownBy(() -> governor.acquire("chrome")).isInstanceOf(WebDriverException.class);
+    }
+}
@@ -0,0 +1,117 @@
+package com.follett.driver.grid;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * StubGrid is a local stand-in for a Selenium Grid 4 hub. {@code /status} reports the configured free and busy slots
+ * per browser, or fails with HTTP 500 while {@link #setFailing(boolean)} is on; other paths answer with a handler set
+ * per path.
+ */
+public final class StubGrid implements AutoCloseable {
+
+    private final HttpServer server;
+
+    private final Map<String, int[]> slots = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+    private volatile boolean failing;
+
+    public StubGrid() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/status", exchange -> {
+            count("/status");
+            if (failing) {
+                respond(exchange, 500, "{}");
+            } else {
+                respond(exchange, 200, status());
+            }
+        });
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Sets the slots the grid reports for a browser.
+     *
+     * @param browser the browser name
+     * @param free    the free slots
+     * @param busy    the slots running a session
+     */
+    public void setSlots(String browser, int free, int busy) {
+        slots.put(browser, new int[]{free, busy});
+    }
+
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    /**
+     * Answers the requests to a path with the given handler, which returns the status code and body.
+     *
+     * @param path    the path
+     * @param handler maps the request to {@code [status, body]}
+     */
+    public void handle(String path, Function<HttpExchange, Object[]> handler) {
+        server.createContext(path, exchange -> {
+            count(path);
+            exchange.getRequestBody().readAllBytes();
+            Object[] response = handler.apply(exchange);
+            respond(exchange, (Integer) response[0], (String) response[1]);
+        });
+    }
+
+    /**
+     * Gets how many requests a path received.
+     *
+     * @param path the path
+     * @return the request count
+     */
+    public int hits(String path) {
+        return hits.getOrDefault(path, new AtomicInteger()).get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void count(String path) {
+        hits.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private String status() {
+        StringBuilder slotsJson = new StringBuilder();
+        slots.forEach((browser, counts) -> {
+            for (int i = 0; i < counts[0] + counts[1]; i++) {
+                if (!slotsJson.isEmpty()) {
+                    slotsJson.append(',');
+                }
+                slotsJson.append("{\"stereotype\":{\"browserName\":\"").append(browser).append("\"},\"session\":")
+                        .append(i < counts[0] ? "null" : "{\"sessionId\":\"s" + i + "\"}").append('}');
+            }
+        });
+        return "{\"value\":{\"ready\":true,\"nodes\":[{\"availability\":\"UP\",\"slots\":[" + slotsJson + "]}]}}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
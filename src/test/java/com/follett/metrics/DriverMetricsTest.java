@@ -0,0 +1,62 @@
+package com.follett.metrics;
+
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+class DriverMetricsTest {
+
+    private final MockClock clock = new MockClock();
+
+    private DriverMetrics driverMetrics;
+
+    @BeforeEach
+    void setUp() {
+        driverMetrics = new DriverMetrics();
+        ReflectionTestUtils.setField(driverMetrics, "registry", new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock));
+    }
+
+    @Test
+    void percentilesCoverTheWholeRun() {
+        for (int i = 1; i <= 100; i++) {
+            driverMetrics.record("driver.create", Duration.ofMillis(1000), "phase", "session", "browser", "chrome");
+        }
+        clock.add(Duration.ofHours(2));
+        driverMetrics.record("driver.create", Duration.ofMillis(10), "phase", "session", "browser", "chrome");
+
+        Timer timer = driverMetrics.timer("driver.create", "phase", "session", "browser", "chrome");
+        ValueAtPercentile[] percentiles = timer.takeSnapshot().percentileValues();
+
+        assertThat(timer.count()).isEqualTo(101);
+        assertThat(percentiles).hasSize(2);
+        assertThat(percentiles[0].value(TimeUnit.MILLISECONDS)).isGreaterThan(900);
+        assertThat(percentiles[1].value(TimeUnit.MILLISECONDS)).isGreaterThan(900);
+    }
+
+    @Test
+    void skipsOtherTagKeysForTheSameName() {
+        driverMetrics.record("driver.teardown", Duration.ofMillis(5), "op", "quit", "browser", "chrome");
+        driverMetrics.timer("driver.teardown", "browser", "firefox", "op", "release");
+
+        assertThat(driverMetrics.getMismatchedNames()).isEmpty();
+        assertThatNoException().isThrownBy(() -> {
+            driverMetrics.record("driver.teardown", Duration.ofMillis(5), "op", "quit");
+            driverMetrics.increment("driver.teardown", "op", "quit");
+        });
+
+        assertThat(driverMetrics.getMismatchedNames()).containsExactly("driver.teardown");
+        assertThat(driverMetrics.getRegistry().find("driver.teardown").meters())
+                .hasSize(2)
+                .allMatch(meter -> meter.getId().getTag("browser") != null);
+    }
+}
@@ -0,0 +1,95 @@
+package com.follett.shard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardPlannerTest {
+
+    private static final String FEATURE = String.join("\n",
+            "@pos",
+            "Feature: Sale",
+            "",
+            "  Background:",
+            "    Given a register",
+            "",
+            "  @smoke",
+            "  Scenario: Cash sale",
+            "    Given a cart with:",
+            "      | item | qty |",
+            "      | pen  | 1   |",
+            "    Then the doc string is",
+            "      \"\"\"",
+            "      Scenario: not a scenario",
+            "      \"\"\"",
+            "",
+            "  Scenario Outline: Sale of <item>",
+            "    Given a cart with <item>",
+            "",
+            "    @smoke",
+            "    Examples: Common",
+            "      | item |",
+            "      | pen  |",
+            "      | book |",
+            "",
+            "    Examples: Rare",
+            "      | item  |",
+            "      | globe |",
+            "",
+            "  Rule: Refunds",
+            "",
+            "    @slow",
+            "    Scenario: Refund",
+            "      Given a sale",
+            "");
+
+    @TempDir
+    Path features;
+
+    @Test
+    void plansEveryExampleRowUnderItsLine() throws IOException {
+        write();
+
+        List<ShardPlanner.PlannedScenario> scenarios = ShardPlanner.scan(features, "");
+
+        assertThat(scenarios).extracting(ShardPlanner.PlannedScenario::line).containsExactly(8, 23, 24, 28, 33);
+        assertThat(scenarios).extracting(ShardPlanner.PlannedScenario::key)
+                .containsExactly("sale.feature:8", "sale.feature:23", "sale.feature:24", "sale.feature:28",
+                        "sale.feature:33");
+    }
+
+    @Test
+    void onlyPlansTheScenariosMatchingTheTags() throws IOException {
+        write();
+
+        assertThat(ShardPlanner.scan(features, "@smoke"))
+                .extracting(ShardPlanner.PlannedScenario::line).containsExactly(8, 23, 24);
+        assertThat(ShardPlanner.scan(features, "@pos and not @slow and not @smoke"))
+                .extracting(ShardPlanner.PlannedScenario::line).containsExactly(28);
+    }
+
+    @Test
+    void weighsScenariosWithTheRecordedHistory() throws IOException {
+        write();
+        List<ShardPlanner.PlannedScenario> scenarios = ShardPlanner.scan(features, "");
+
+        Map<String, Long> history = Map.of(ScenarioDurations.key("sale.feature", 8), 100L,
+                ScenarioDurations.key("sale.feature", 23), 100L, ScenarioDurations.key("sale.feature", 24), 100L,
+                ScenarioDurations.key("sale.feature", 28), 100L, ScenarioDurations.key("sale.feature", 33), 10_000L);
+
+        List<List<ShardPlanner.PlannedScenario>> shards = ShardPlanner.plan(scenarios, history, 2);
+
+        assertThat(shards.get(0)).extracting(ShardPlanner.PlannedScenario::line).containsExactly(33);
+        assertThat(shards.get(1)).hasSize(4);
+    }
+
+    private void write() throws IOException {
+        Files.writeString(features.resolve("sale.feature"), FEATURE);
+    }
+}